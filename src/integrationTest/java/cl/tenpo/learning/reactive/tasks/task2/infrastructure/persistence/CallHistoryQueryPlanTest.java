@@ -0,0 +1,161 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryCursor;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryFilter;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryStorageConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con explain() sobre un Mongo embebido que cada forma de filtro del historial usa el índice
+ * previsto y que la página sale del índice: las claves y documentos examinados no superan el límite
+ * de la página más un margen, en vez de crecer con la colección.
+ */
+class CallHistoryQueryPlanTest {
+
+    private static final String COLLECTION = "call_history";
+    private static final int LIMIT = 11;
+    // Un $or de cursor puede leer una clave de más por rama al cortar la página
+    private static final int EXAMINED_SLACK = 4;
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongo;
+    private static MongoClient client;
+    private static ReactiveMongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void startMongo() {
+        mongo = Mongod.instance().start(Version.Main.V6_0);
+        ServerAddress address = mongo.current().getServerAddress();
+        client = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        mongoTemplate = new ReactiveMongoTemplate(client, "query_plan_test");
+
+        TimeoutConfig timeoutConfig = new TimeoutConfig();
+        timeoutConfig.setDatabaseOperation(Duration.ofSeconds(30));
+        new CallHistoryStorageInitializer(mongoTemplate, new HistoryStorageConfig(), timeoutConfig).initialize();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            documents.add(new Document("_id", new ObjectId())
+                    .append("timestamp", now.minusSeconds(i))
+                    .append("endpoint", i % 2 == 0 ? "/calculation" : "/users")
+                    .append("method", i % 3 == 0 ? "GET" : "POST")
+                    .append("username", "user-" + (i % 10))
+                    .append("successful", i % 4 != 0));
+        }
+        Mono.from(mongoTemplate.getCollection(COLLECTION).block().insertMany(documents)).block();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        client.close();
+        mongo.close();
+    }
+
+    @Test
+    void everyFilterShapeIsServedByAnIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        HistoryCursor cursor = new HistoryCursor(now.minusSeconds(50), new ObjectId().toHexString());
+        Map<String, Shape> shapes = Map.of(
+                "sin filtros", new Shape(HistoryFilter.none(),
+                        CallHistoryStorageInitializer.CURSOR_INDEX),
+                "endpoint", new Shape(new HistoryFilter("/calculation", null, null, null, null, null),
+                        CallHistoryStorageInitializer.ENDPOINT_INDEX),
+                "endpoint y resultado", new Shape(new HistoryFilter("/calculation", null, false, null, null, null),
+                        CallHistoryStorageInitializer.ENDPOINT_OUTCOME_INDEX),
+                "endpoint y método", new Shape(new HistoryFilter("/calculation", "post", null, null, null, null),
+                        CallHistoryStorageInitializer.ENDPOINT_METHOD_INDEX),
+                "resultado", new Shape(new HistoryFilter(null, null, false, null, null, null),
+                        CallHistoryStorageInitializer.OUTCOME_INDEX),
+                "usuario", new Shape(new HistoryFilter(null, null, null, "user-3", null, null),
+                        CallHistoryStorageInitializer.USERNAME_INDEX),
+                "método", new Shape(new HistoryFilter(null, "GET", null, null, null, null),
+                        CallHistoryStorageInitializer.METHOD_INDEX),
+                "rango", new Shape(new HistoryFilter(null, null, null, null, now.minusMinutes(1), now),
+                        CallHistoryStorageInitializer.CURSOR_INDEX),
+                "usuario, resultado y rango", new Shape(
+                        new HistoryFilter(null, null, true, "user-3", now.minusMinutes(1), now),
+                        CallHistoryStorageInitializer.USERNAME_INDEX));
+
+        shapes.forEach((name, shape) -> {
+            assertServedBy(name, CallHistoryRepositoryCustomImpl.pageQuery(shape.filter(), null, LIMIT), shape.index());
+            assertServedBy(name + " con cursor",
+                    CallHistoryRepositoryCustomImpl.pageQuery(shape.filter(), cursor, LIMIT), shape.index());
+        });
+    }
+
+    private static void assertServedBy(String shape, Query query, String expectedIndex) {
+        Document filter = new QueryMapper(mongoTemplate.getConverter())
+                .getMappedObject(query.getQueryObject(), (MongoPersistentEntity<?>) null);
+        Document explain = Flux.from(mongoTemplate.getCollection(COLLECTION).block()
+                        .find(filter)
+                        .sort(query.getSortObject())
+                        .limit(query.getLimit())
+                        .explain(ExplainVerbosity.EXECUTION_STATS))
+                .blockFirst();
+
+        Object winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan");
+        List<String> stages = new ArrayList<>();
+        Set<String> indexes = new HashSet<>();
+        collectStages(winningPlan, stages, indexes);
+        assertFalse(stages.contains("COLLSCAN"), shape + ": el plan recorre la colección " + stages);
+        assertFalse(stages.contains("SORT"), shape + ": el plan ordena en memoria " + stages);
+        assertEquals(Set.of(expectedIndex), indexes, shape + ": el plan no usa el índice previsto " + stages);
+
+        Document stats = explain.get("executionStats", Document.class);
+        int returned = stats.getInteger("nReturned");
+        assertTrue(returned > 0, shape + ": la consulta no devolvió registros");
+        assertTrue(stats.getInteger("totalKeysExamined") <= query.getLimit() + EXAMINED_SLACK,
+                shape + ": examina demasiadas claves " + stats.toJson());
+        assertTrue(stats.getInteger("totalDocsExamined") <= query.getLimit() + EXAMINED_SLACK,
+                shape + ": examina demasiados documentos " + stats.toJson());
+    }
+
+    private static void collectStages(Object node, List<String> stages, Set<String> indexes) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+                if ("IXSCAN".equals(name)) {
+                    indexes.add(document.getString("indexName"));
+                }
+            }
+            document.values().forEach(value -> collectStages(value, stages, indexes));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages, indexes));
+        }
+    }
+
+    private record Shape(HistoryFilter filter, String index) {
+    }
+}
@@ -0,0 +1,44 @@
+package cl.tenpo.learning.reactive.tasks.task2.application;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.CalculationResultCache;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.PercentageVersionTracker;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.CalculationResultCacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CalculationServiceBenchmark {
+
+    private CalculationServiceImpl calculationService;
+    private BigDecimal num1;
+    private BigDecimal num2;
+
+    @Setup
+    public void setUp() {
+        Mono<BigDecimal> percentage = Mono.just(new BigDecimal("0.1"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Caché de resultados desactivada (valor por defecto); el validador sólo se usa en lotes
+        CalculationResultCache resultCache = new CalculationResultCache(new CalculationResultCacheConfig(),
+                new PercentageVersionTracker(meterRegistry), meterRegistry);
+        calculationService = new CalculationServiceImpl(() -> percentage, null, resultCache);
+        num1 = new BigDecimal("10.25");
+        num2 = new BigDecimal("5.5");
+    }
+
+    @Benchmark
+    public BigDecimal calculateWithPercentage() {
+        return calculationService.calculateWithPercentage(num1, num2).block();
+    }
+}
@@ -0,0 +1,44 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.arithmetic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el camino de punto fijo con el cálculo BigDecimal original (ver gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FixedPointArithmeticBenchmark {
+
+    private final BigDecimal num1 = new BigDecimal("1250.75");
+    private final BigDecimal num2 = new BigDecimal("99.5");
+    private final BigDecimal percentage = new BigDecimal("0.125");
+
+    @Benchmark
+    public BigDecimal fixedPoint() {
+        return FixedPointArithmetic.applyPercentage(num1, num2, percentage);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        return FixedPointArithmetic.applyPercentageSlow(num1, num2, percentage);
+    }
+
+    @Benchmark
+    public BigDecimal fixedPointExact() {
+        return FixedPointArithmetic.applyPercentageExact(num1, num2, percentage);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalExact() {
+        return FixedPointArithmetic.applyPercentageExactSlow(num1, num2, percentage);
+    }
+}
@@ -0,0 +1,53 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.JacksonConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de un valor de caché: deserialización (JSON vs binario) más la conversión a BigDecimal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheValueConversionBenchmark {
+
+    private CompactValueRedisSerializer jsonSerializer;
+    private CompactValueRedisSerializer compactSerializer;
+    private byte[] jsonPayload;
+    private byte[] compactPayload;
+
+    @Setup
+    public void setUp() {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(new JacksonConfig().objectMapper());
+        jsonSerializer = new CompactValueRedisSerializer(json, false);
+        compactSerializer = new CompactValueRedisSerializer(json, true);
+        BigDecimal percentage = new BigDecimal("0.125");
+        jsonPayload = jsonSerializer.serialize(percentage);
+        compactPayload = compactSerializer.serialize(percentage);
+    }
+
+    @Benchmark
+    public BigDecimal readJsonEntry() {
+        return PercentageCacheService.toBigDecimal(jsonSerializer.deserialize(jsonPayload));
+    }
+
+    @Benchmark
+    public BigDecimal readCompactEntry() {
+        return PercentageCacheService.toBigDecimal(compactSerializer.deserialize(compactPayload));
+    }
+
+    @Benchmark
+    public BigDecimal convertString() {
+        return PercentageCacheService.toBigDecimal("0.125");
+    }
+}
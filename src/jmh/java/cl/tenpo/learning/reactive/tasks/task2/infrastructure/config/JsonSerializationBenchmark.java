@@ -0,0 +1,51 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización con el ObjectMapper de la aplicación (SNAKE_CASE, JavaTimeModule).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private CalculationResponse calculationResponse;
+    private CallHistory callHistory;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        calculationResponse = CalculationResponse.builder()
+                .result(new BigDecimal("33.00"))
+                .num1(BigDecimal.TEN)
+                .num2(new BigDecimal("20"))
+                .build();
+        callHistory = CallHistory.createSuccessfulRecord("/learning-reactive/calculation", "POST",
+                "{\"number_1\":10,\"number_2\":20}", "{\"result\":33.00,\"num1\":10,\"num2\":20}");
+    }
+
+    @Benchmark
+    public byte[] serializeCalculationResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(calculationResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeCallHistory() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(callHistory);
+    }
+}
@@ -0,0 +1,60 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.filter;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.BodyCaptureConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de capturar request y response de un intercambio, como lo hace RequestLoggingFilter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BodyCaptureBenchmark {
+
+    @Param({"64", "4096"})
+    private int bodySize;
+
+    private String requestBody;
+    private byte[] responseBody;
+    private BodyCaptureBufferPool bufferPool;
+
+    @Setup
+    public void setUp() {
+        bufferPool = new BodyCaptureBufferPool(new BodyCaptureConfig());
+        requestBody = "{\"number_1\":10,\"number_2\":20,\"padding\":\"" + "x".repeat(bodySize) + "\"}";
+        responseBody = ("{\"result\":33.00,\"padding\":\"" + "y".repeat(bodySize) + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String captureRequestAndResponse() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/learning-reactive/calculation").body(requestBody));
+        ResponseCaptureExchange capture = new ResponseCaptureExchange(exchange, bufferPool);
+
+        DataBuffer joined = DataBufferUtils.join(capture.getRequest().getBody()).block();
+        DataBufferUtils.release(joined);
+        capture.getResponse()
+                .writeWith(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(responseBody)))
+                .block();
+
+        String captured = capture.getRequestBody() + capture.getResponseBody();
+        capture.release();
+        return captured;
+    }
+}
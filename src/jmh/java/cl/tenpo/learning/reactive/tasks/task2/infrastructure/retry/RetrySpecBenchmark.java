@@ -0,0 +1,36 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.retry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RetrySpecBenchmark {
+
+    private BackoffRetryStrategy retryStrategy;
+
+    @Setup
+    public void setUp() {
+        retryStrategy = new BackoffRetryStrategy(event -> { });
+        ReflectionTestUtils.setField(retryStrategy, "maxAttempts", 3L);
+        ReflectionTestUtils.setField(retryStrategy, "initialBackoff", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(retryStrategy, "maxBackoff", Duration.ofSeconds(2));
+    }
+
+    @Benchmark
+    public Retry getRetrySpec() {
+        return retryStrategy.getRetrySpec(BigDecimal.class);
+    }
+}
@@ -0,0 +1,115 @@
+package cl.tenpo.learning.reactive.tasks.task2.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Compara el endpoint REST de cálculo con el canal WebSocket contra una instancia levantada.
+ * Uso: ./gradlew transportBenchmark -PtransportBenchmarkArgs="[baseUrl] [requests] [concurrency]"
+ * Por defecto: http://localhost:8083/learning-reactive 10000 32
+ */
+public final class CalculationTransportBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CalculationTransportBenchmark.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<String, Integer> BODY = Map.of("number_1", 10, "number_2", 20);
+
+    private CalculationTransportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8083/learning-reactive";
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+
+        // Calentamiento de ambos caminos antes de medir
+        runRest(baseUrl, Math.min(requests, 1_000), concurrency);
+        runWebSocket(baseUrl, Math.min(requests, 1_000));
+
+        report("REST", requests, runRest(baseUrl, requests, concurrency));
+        report("WebSocket", requests, runWebSocket(baseUrl, requests));
+    }
+
+    private static Result runRest(String baseUrl, int requests, int concurrency) {
+        WebClient client = WebClient.create(baseUrl);
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long sent = System.nanoTime();
+                    return client.post().uri("/calculation")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(BODY)
+                            .retrieve()
+                            .bodyToMono(String.class)
+                            .doOnNext(body -> latencies[i] = System.nanoTime() - sent);
+                }, concurrency)
+                .blockLast(Duration.ofMinutes(10));
+        return new Result(System.nanoTime() - start, latencies);
+    }
+
+    private static Result runWebSocket(String baseUrl, int requests) throws Exception {
+        URI uri = URI.create(baseUrl.replaceFirst("^http", "ws") + "/calculation/stream");
+        String payload = MAPPER.writeValueAsString(BODY);
+        long[] sentAt = new long[requests];
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        new ReactorNettyWebSocketClient()
+                .execute(uri, session -> {
+                    Mono<Void> send = session.send(Flux.range(0, requests)
+                            .map(i -> {
+                                sentAt[i] = System.nanoTime();
+                                return session.textMessage(payload);
+                            }));
+                    Mono<Void> receive = session.receive()
+                            .map(WebSocketMessage::getPayloadAsText)
+                            .take(requests)
+                            .doOnNext(text -> {
+                                int index = readIndex(text);
+                                latencies[index] = System.nanoTime() - sentAt[index];
+                            })
+                            .then();
+                    return Mono.zip(send, receive).then();
+                })
+                .block(Duration.ofMinutes(10));
+        return new Result(System.nanoTime() - start, latencies);
+    }
+
+    private static int readIndex(String json) {
+        try {
+            return MAPPER.readTree(json).get("index").asInt();
+        } catch (Exception e) {
+            throw new IllegalStateException("Respuesta inválida: " + json, e);
+        }
+    }
+
+    private static void report(String name, int requests, Result result) {
+        long[] sorted = result.latencies().clone();
+        Arrays.sort(sorted);
+        double seconds = result.elapsedNanos() / 1_000_000_000.0;
+        log.info(String.format("%-10s %8d req  %10.1f req/s  p50=%.2fms  p99=%.2fms  max=%.2fms",
+                name, requests, requests / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1_000_000.0));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Result(long elapsedNanos, long[] latencies) {
+    }
+}
@@ -0,0 +1,72 @@
+package cl.tenpo.learning.reactive.tasks.task2.loadtest;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reemplazos locales de las dependencias: Redis y MongoDB embebidos y H2 (modo PostgreSQL) vía R2DBC.
+ * Kafka no se levanta: sólo se usa al agotar reintentos y la aplicación tolera que no esté disponible.
+ */
+final class EmbeddedInfrastructure implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedInfrastructure.class);
+
+    private final RedisServer redis;
+    private final int redisPort;
+    private final TransitionWalker.ReachedState<RunningMongodProcess> mongo;
+
+    private EmbeddedInfrastructure(RedisServer redis, int redisPort,
+                                   TransitionWalker.ReachedState<RunningMongodProcess> mongo) {
+        this.redis = redis;
+        this.redisPort = redisPort;
+        this.mongo = mongo;
+    }
+
+    static EmbeddedInfrastructure start() throws IOException {
+        int redisPort = freePort();
+        RedisServer redis = new RedisServer(redisPort);
+        redis.start();
+        log.info("Redis embebido en puerto {}", redisPort);
+
+        TransitionWalker.ReachedState<RunningMongodProcess> mongo = Mongod.instance().start(Version.Main.V6_0);
+        log.info("MongoDB embebido en {}", mongo.current().getServerAddress());
+        return new EmbeddedInfrastructure(redis, redisPort, mongo);
+    }
+
+    Map<String, String> springProperties() {
+        ServerAddress mongoAddress = mongo.current().getServerAddress();
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.data.mongodb.uri",
+                "mongodb://" + mongoAddress.getHost() + ":" + mongoAddress.getPort() + "/load_test");
+        properties.put("spring.data.mongodb.database", "load_test");
+        properties.put("spring.data.redis.host", "localhost");
+        properties.put("spring.data.redis.port", String.valueOf(redisPort));
+        properties.put("spring.r2dbc.url", "r2dbc:h2:mem:///load_test;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.r2dbc.username", "sa");
+        properties.put("spring.r2dbc.password", "");
+        return properties;
+    }
+
+    @Override
+    public void close() throws IOException {
+        mongo.close();
+        redis.stop();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package cl.tenpo.learning.reactive.tasks.task2.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opciones del harness. Los argumentos --load.* configuran la carga; cualquier otro --clave=valor
+ * se pasa tal cual a la aplicación (p. ej. --app.schedulers.database.parallelism=8) y queda en el reporte.
+ */
+record LoadTestOptions(int rate,
+                       Duration duration,
+                       Duration warmup,
+                       Duration requestTimeout,
+                       int port,
+                       boolean embedded,
+                       List<String> scenarios,
+                       String reportDir,
+                       Map<String, String> appProperties) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> load = new LinkedHashMap<>();
+        Map<String, String> app = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (se espera --clave=valor): " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (key.startsWith("load.")) {
+                load.put(key.substring("load.".length()), value);
+            } else {
+                app.put(key, value);
+            }
+        }
+        return new LoadTestOptions(
+                Integer.parseInt(load.getOrDefault("rate", "200")),
+                Duration.parse(load.getOrDefault("duration", "PT30S")),
+                Duration.parse(load.getOrDefault("warmup", "PT10S")),
+                Duration.parse(load.getOrDefault("request-timeout", "PT30S")),
+                Integer.parseInt(load.getOrDefault("port", "18083")),
+                Boolean.parseBoolean(load.getOrDefault("embedded", "true")),
+                Arrays.asList(load.getOrDefault("scenarios", String.join(",", Scenario.names())).split(",")),
+                load.getOrDefault("report-dir", System.getProperty("load.reportDir", "build/reports/load-test")),
+                app);
+    }
+}
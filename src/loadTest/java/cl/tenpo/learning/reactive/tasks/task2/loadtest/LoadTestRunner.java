@@ -0,0 +1,118 @@
+package cl.tenpo.learning.reactive.tasks.task2.loadtest;
+
+import cl.tenpo.learning.reactive.tasks.task2.T2Application;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Levanta la aplicación completa (con dependencias embebidas o las locales) y ejecuta cada escenario
+ * a tasa fija, escribiendo un reporte JSON por corrida en build/reports/load-test.
+ */
+public final class LoadTestRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        EmbeddedInfrastructure infrastructure = options.embedded() ? EmbeddedInfrastructure.start() : null;
+
+        Map<String, String> properties = defaultProperties(options);
+        if (infrastructure != null) {
+            properties.putAll(infrastructure.springProperties());
+        }
+        properties.putAll(options.appProperties());
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(T2Application.class)
+                .run(toArguments(properties));
+        try (OpenLoopDriver driver = new OpenLoopDriver(
+                "http://localhost:" + options.port() + "/learning-reactive", options.requestTimeout())) {
+
+            List<ScenarioResult> results = new ArrayList<>();
+            for (String name : options.scenarios()) {
+                Scenario scenario = Scenario.byName(name);
+                log.info("Calentando {} a {} req/s durante {}", scenario.scenarioName(), options.rate(), options.warmup());
+                driver.run(scenario, options.rate(), options.warmup());
+
+                log.info("Midiendo {} a {} req/s durante {}", scenario.scenarioName(), options.rate(), options.duration());
+                ScenarioResult result = driver.run(scenario, options.rate(), options.duration());
+                log.info("{}: {} req, {} errores, latencias (ms) {}", result.scenario(), result.requests(),
+                        result.errors(), result.latencyMs());
+                results.add(result);
+            }
+            writeReport(options, properties, results);
+        } finally {
+            context.close();
+            if (infrastructure != null) {
+                infrastructure.close();
+            }
+        }
+    }
+
+    /**
+     * Valores para que la medición refleje la aplicación y no el stub ni el logging por consola.
+     */
+    private static Map<String, String> defaultProperties(LoadTestOptions options) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", String.valueOf(options.port()));
+        properties.put("app.api.external.base-url", "http://localhost:" + options.port() + "/learning-reactive");
+        properties.put("app.testing.external-stub.base-latency", "PT0.005S");
+        properties.put("app.testing.external-stub.jitter", "PT0.005S");
+        properties.put("app.testing.external-stub.slow-ratio", "0.0");
+        properties.put("app.testing.external-stub.error-ratio", "0.0");
+        properties.put("app.testing.force-external-api-error", "false");
+        properties.put("logging.level.cl.tenpo.learning.reactive", "WARN");
+        properties.put("logging.level.org.springframework.web.reactive", "WARN");
+        properties.put("logging.level.cl.tenpo.learning.reactive.tasks.task2.loadtest", "INFO");
+        return properties;
+    }
+
+    /**
+     * Se pasan como argumentos de línea de comandos para que tengan prioridad sobre application.yml.
+     */
+    private static String[] toArguments(Map<String, String> properties) {
+        return properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static void writeReport(LoadTestOptions options, Map<String, String> properties,
+                                    List<ScenarioResult> results) throws Exception {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", now.toString());
+        report.put("rate", options.rate());
+        report.put("duration", options.duration().toString());
+        report.put("warmup", options.warmup().toString());
+        report.put("embedded", options.embedded());
+        report.put("java_version", System.getProperty("java.version"));
+        report.put("available_processors", Runtime.getRuntime().availableProcessors());
+        report.put("properties", properties);
+        report.put("scenarios", results);
+
+        File directory = new File(options.reportDir());
+        directory.mkdirs();
+        File file = new File(directory, "load-test-" + DateTimeFormatter.ISO_INSTANT.format(now).replace(":", "") + ".json");
+        new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file, report);
+        log.info("Reporte de carga escrito en {}", file.getAbsolutePath());
+    }
+}
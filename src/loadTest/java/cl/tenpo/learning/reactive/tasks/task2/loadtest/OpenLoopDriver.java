@@ -0,0 +1,84 @@
+package cl.tenpo.learning.reactive.tasks.task2.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga en lazo abierto: las peticiones salen a tasa fija sin esperar las respuestas previas.
+ * La latencia se mide desde el instante en que la petición debía salir según el plan, no desde que salió,
+ * así que una aplicación lenta no reduce la carga ni oculta su cola (corrección de coordinated omission).
+ */
+final class OpenLoopDriver implements AutoCloseable {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int STATUS_ERROR = -1;
+
+    private final WebClient webClient;
+    private final ConnectionProvider connectionProvider;
+    private final Duration requestTimeout;
+
+    OpenLoopDriver(String baseUrl, Duration requestTimeout) {
+        this.connectionProvider = ConnectionProvider.builder("load-test")
+                .maxConnections(2_000)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+        this.requestTimeout = requestTimeout;
+    }
+
+    ScenarioResult run(Scenario scenario, int rate, Duration duration) {
+        Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = Math.max(1, duration.toNanos() / periodNanos);
+
+        long start = System.nanoTime();
+        // El tick 0 sale en t=0 para que coincida con su inicio planificado (start + tick * period)
+        Flux.interval(Duration.ZERO, Duration.ofNanos(periodNanos))
+                .take(total)
+                .flatMap(tick -> {
+                    long intendedStart = start + tick * periodNanos;
+                    return send(scenario)
+                            .doOnNext(status -> {
+                                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                                histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                                statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+                            });
+                }, Integer.MAX_VALUE)
+                .blockLast();
+        long elapsedNanos = System.nanoTime() - start;
+
+        return ScenarioResult.from(scenario, rate, total, elapsedNanos, histogram, statusCounts);
+    }
+
+    private Mono<Integer> send(Scenario scenario) {
+        WebClient.RequestBodySpec request = webClient.method(scenario.method()).uri(scenario.path());
+        WebClient.RequestHeadersSpec<?> spec = scenario.body() == null
+                ? request
+                : request.contentType(MediaType.APPLICATION_JSON).bodyValue(scenario.body());
+        return spec.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .timeout(requestTimeout)
+                .onErrorReturn(STATUS_ERROR);
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.dispose();
+    }
+}
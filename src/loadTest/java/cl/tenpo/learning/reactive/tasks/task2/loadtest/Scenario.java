@@ -0,0 +1,61 @@
+package cl.tenpo.learning.reactive.tasks.task2.loadtest;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Endpoints cubiertos por el harness. Las rutas son relativas al base-path de la aplicación.
+ */
+enum Scenario {
+
+    CALCULATION("calculation", HttpMethod.POST, "/calculation", Bodies.CALCULATION),
+    V2_CALC("v2-calc", HttpMethod.POST, "/v2/calc", Bodies.CALCULATION),
+    FUNCTIONAL_CALCULATION("functional-calculation", HttpMethod.POST, "/functional/calculation", Bodies.CALCULATION),
+    HISTORY("history", HttpMethod.GET, "/history?username=admin&page=0&size=10", null),
+    USERS("users", HttpMethod.GET, "/users", null);
+
+    private final String scenarioName;
+    private final HttpMethod method;
+    private final String path;
+    private final String body;
+
+    Scenario(String scenarioName, HttpMethod method, String path, String body) {
+        this.scenarioName = scenarioName;
+        this.method = method;
+        this.path = path;
+        this.body = body;
+    }
+
+    String scenarioName() {
+        return scenarioName;
+    }
+
+    HttpMethod method() {
+        return method;
+    }
+
+    String path() {
+        return path;
+    }
+
+    String body() {
+        return body;
+    }
+
+    static Scenario byName(String name) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.scenarioName.equals(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Escenario desconocido: " + name));
+    }
+
+    static List<String> names() {
+        return Arrays.stream(values()).map(Scenario::scenarioName).toList();
+    }
+
+    private static final class Bodies {
+        static final String CALCULATION = "{\"number_1\": 10, \"number_2\": 20}";
+    }
+}
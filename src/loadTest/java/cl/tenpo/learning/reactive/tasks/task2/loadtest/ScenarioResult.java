@@ -0,0 +1,62 @@
+package cl.tenpo.learning.reactive.tasks.task2.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultado de un escenario. El histograma completo se incluye comprimido en base64
+ * para poder combinar o comparar corridas con las herramientas de HdrHistogram.
+ */
+record ScenarioResult(String scenario,
+                      String method,
+                      String path,
+                      int targetRate,
+                      double achievedRate,
+                      long requests,
+                      long errors,
+                      Map<String, Long> statusCounts,
+                      Map<String, Double> latencyMs,
+                      String histogram) {
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+
+    static ScenarioResult from(Scenario scenario, int rate, long requests, long elapsedNanos,
+                               Histogram histogram, Map<Integer, LongAdder> statusCounts) {
+        Map<String, Long> statuses = new TreeMap<>();
+        long errors = 0;
+        for (Map.Entry<Integer, LongAdder> entry : statusCounts.entrySet()) {
+            long count = entry.getValue().sum();
+            int status = entry.getKey();
+            statuses.put(status < 0 ? "error" : String.valueOf(status), count);
+            if (status < 200 || status >= 300) {
+                errors += count;
+            }
+        }
+
+        Map<String, Double> latency = new TreeMap<>();
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + String.valueOf(percentile).replace(".0", ""), toMillis(histogram.getValueAtPercentile(percentile)));
+        }
+        latency.put("mean", histogram.getMean() / 1_000.0);
+        latency.put("max", toMillis(histogram.getMaxValue()));
+
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        String encoded = Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return new ScenarioResult(scenario.scenarioName(), scenario.method().name(), scenario.path(), rate,
+                histogram.getTotalCount() / seconds, requests, errors, statuses, latency, encoded);
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1_000.0;
+    }
+}
@@ -2,15 +2,22 @@ package cl.tenpo.learning.reactive.tasks.task2.application;
 
 import cl.tenpo.learning.reactive.tasks.task2.application.port.CalculationService;
 import cl.tenpo.learning.reactive.tasks.task2.application.port.PercentageService;
+import cl.tenpo.learning.reactive.tasks.task2.domain.arithmetic.FixedPointArithmetic;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.CalculationResultCache;
+import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationBatchItem;
 import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationRequest;
 import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.List;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -18,6 +25,8 @@ import java.math.RoundingMode;
 public class CalculationServiceImpl implements CalculationService {
 
     private final PercentageService percentageService;
+    private final Validator validator;
+    private final CalculationResultCache resultCache;
 
     @Override
     public Mono<CalculationResponse> processCalculationRequest(CalculationRequest request) {
@@ -38,15 +47,54 @@ public class CalculationServiceImpl implements CalculationService {
     public Mono<BigDecimal> calculateWithPercentage(BigDecimal num1, BigDecimal num2) {
         log.debug("🧮 Calculating with values: num1={}, num2={}", num1, num2);
 
-        return Mono.just(num1.add(num2))
-                .flatMap(sum -> percentageService.getPercentage()
-                        .map(percentage -> applyPercentage(sum, percentage))
-                )
+        return Mono.defer(() -> resultCache.get(num1, num2)
+                        .map(cached -> {
+                            log.debug("♻️ Result cache hit for num1={}, num2={}", num1, num2);
+                            return Mono.just(cached);
+                        })
+                        .orElseGet(() -> percentageService.getPercentage()
+                                .map(percentage -> {
+                                    BigDecimal result = applyPercentage(num1, num2, percentage);
+                                    resultCache.put(num1, num2, percentage, result);
+                                    return result;
+                                })))
                 .doOnNext(result -> log.debug("📊 Final result after percentage: {}", result));
     }
 
-    private BigDecimal applyPercentage(BigDecimal sum, BigDecimal percentage) {
-        log.debug("📐 Applying percentage {} to sum {}", percentage, sum);
-        return sum.add(sum.multiply(percentage)).setScale(2, RoundingMode.HALF_UP);
+    /**
+     * Procesa un lote resolviendo el porcentaje una sola vez y emitiendo los resultados en orden.
+     * Los elementos inválidos se informan con sus errores sin cortar el resto del lote.
+     */
+    @Override
+    public Flux<CalculationBatchItem> processBatch(Flux<CalculationRequest> requests) {
+        return percentageService.getPercentage()
+                .doOnNext(percentage -> log.info("📦 Processing batch with percentage {}", percentage))
+                .flatMapMany(percentage -> requests
+                        .index()
+                        .map(indexed -> toBatchItem(indexed.getT1(), indexed.getT2(), percentage)));
+    }
+
+    private CalculationBatchItem toBatchItem(long index, CalculationRequest request, BigDecimal percentage) {
+        Set<ConstraintViolation<CalculationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            List<String> errors = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .toList();
+            return CalculationBatchItem.builder().index(index).errors(errors).build();
+        }
+        return CalculationBatchItem.builder()
+                .index(index)
+                .response(CalculationResponse.builder()
+                        .result(applyPercentage(request.getNum1(), request.getNum2(), percentage))
+                        .num1(request.getNum1())
+                        .num2(request.getNum2())
+                        .build())
+                .build();
+    }
+
+    private BigDecimal applyPercentage(BigDecimal num1, BigDecimal num2, BigDecimal percentage) {
+        log.debug("📐 Applying percentage {} to {} + {}", percentage, num1, num2);
+        return FixedPointArithmetic.applyPercentage(num1, num2, percentage);
     }
 }
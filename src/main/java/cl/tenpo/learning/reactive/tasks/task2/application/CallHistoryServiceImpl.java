@@ -3,12 +3,22 @@ package cl.tenpo.learning.reactive.tasks.task2.application;
 import cl.tenpo.learning.reactive.tasks.task2.application.port.AuthorizedUserService;
 import cl.tenpo.learning.reactive.tasks.task2.application.port.CallHistoryService;
 import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryCursor;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryFilter;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryPage;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.PayloadText;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryExportConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryPersistenceConfig;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.PaginationConfig;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.event.CallHistoryKafkaPublisher;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.UnauthorizedException;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.factory.PageableFactory;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.CallHistoryRepository;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.CallHistoryWriteBehindQueue;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal.HistoryWriteAheadLog;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
@@ -19,6 +29,7 @@ import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +42,11 @@ public class CallHistoryServiceImpl implements CallHistoryService {
     private final TimeoutConfig timeoutConfig;
     private final PaginationConfig paginationConfig;
     private final AuthorizedUserService userService;
+    private final HistoryPersistenceConfig persistenceConfig;
+    private final CallHistoryWriteBehindQueue writeBehindQueue;
+    private final HistoryExportConfig exportConfig;
+    private final CallHistoryKafkaPublisher kafkaPublisher;
+    private final HistoryWriteAheadLog writeAheadLog;
 
     @Override
     public Flux<CallHistory> getCallHistory(Pageable pageable) {
@@ -49,7 +65,6 @@ public class CallHistoryServiceImpl implements CallHistoryService {
                 .switchIfEmpty(Mono.error(new UnauthorizedException("Usuario no autorizado para acceder al historial")))
                 .flatMapMany(authorized -> getCallHistory(pageable))
                 .limitRate(100)
-                .onBackpressureBuffer(1000)
                 .doOnComplete(() -> log.info("Historial completado para usuario: {}", username))
                 .checkpoint("authorized-history-" + username);
     }
@@ -68,6 +83,64 @@ public class CallHistoryServiceImpl implements CallHistoryService {
                 .checkpoint("history-from-params");
     }
     
+    /**
+     * Paginación por cursor: se pide un registro extra para saber si existe una página siguiente.
+     * El filtro se aplica en Mongo; el cursor sólo es válido para el mismo filtro con el que se obtuvo.
+     */
+    @Override
+    public Mono<HistoryPage> getHistoryPage(String cursor, Integer size, HistoryFilter filter) {
+        return Mono.fromCallable(() -> cursor == null || cursor.isBlank() ? null : HistoryCursor.decode(cursor))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(after -> {
+                    int pageSize = pageableFactory.pageSize(size);
+                    return callHistoryRepository.findPageAfter(filter, after.orElse(null), pageSize + 1)
+                            .timeout(timeoutConfig.getDatabaseOperation())
+                            .collectList()
+                            .map(records -> toPage(records, pageSize));
+                })
+                .doOnSuccess(page -> log.debug("Página de historial con {} registros, siguiente={}",
+                        page.getItems().size(), page.getNextCursor()))
+                .checkpoint("history-page");
+    }
+
+    @Override
+    public Mono<HistoryPage> getHistoryPageForAuthorizedUser(String username, String cursor, Integer size,
+                                                             HistoryFilter filter) {
+        return userService.isUserAuthorized(username)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(new UnauthorizedException("Usuario no autorizado para acceder al historial")))
+                .flatMap(authorized -> getHistoryPage(cursor, size, filter))
+                .checkpoint("authorized-history-page-" + username);
+    }
+
+    /**
+     * Exportación sin límite de registros: no se acumula nada en memoria ni se aplica el timeout
+     * de operación, la demanda del cliente HTTP es la que avanza el cursor de Mongo.
+     */
+    @Override
+    public Mono<Flux<CallHistory>> exportHistoryForAuthorizedUser(String username, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return Mono.error(new IllegalArgumentException("El rango de exportación debe cumplir from < to"));
+        }
+        return userService.isUserAuthorized(username)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(new UnauthorizedException("Usuario no autorizado para acceder al historial")))
+                .map(authorized -> callHistoryRepository.streamRange(from, to, exportConfig.getBatchSize())
+                        .doOnSubscribe(subscription -> log.info("Exportando historial [{} - {}) para usuario: {}", from, to, username))
+                        .doOnComplete(() -> log.info("Exportación de historial completada para usuario: {}", username))
+                        .doOnCancel(() -> log.info("Exportación de historial cancelada por el cliente: {}", username))
+                        .checkpoint("history-export-" + username));
+    }
+
+    private HistoryPage toPage(List<CallHistory> records, int pageSize) {
+        if (records.size() <= pageSize) {
+            return new HistoryPage(records, null);
+        }
+        List<CallHistory> items = records.subList(0, pageSize);
+        return new HistoryPage(items, HistoryCursor.of(items.get(pageSize - 1)).encode());
+    }
+    
     private Mono<Pageable> createPageableFromParams(Integer page, Integer size) {
         return Mono.justOrEmpty(page)
                 .zipWith(Mono.justOrEmpty(size).defaultIfEmpty(paginationConfig.getDefaultPageSize()))
@@ -80,37 +153,58 @@ public class CallHistoryServiceImpl implements CallHistoryService {
     }
 
     @Override
-    public Mono<CallHistory> recordSuccessfulRequest(String endpoint, String method, String parameters, String response) {
-        return Mono.just(buildHistoryRecord(endpoint, method, parameters, response, true))
+    public Mono<CallHistory> recordSuccessfulRequest(String endpoint, String method, String username, String parameters,
+                                                     String response, long durationMs) {
+        return Mono.just(buildHistoryRecord(endpoint, method, username, parameters, response, true, durationMs))
                 .flatMap(this::saveHistoryRecord)
                 .checkpoint("record-success-history");
     }
 
     @Override
-    public Mono<CallHistory> recordFailedRequest(String endpoint, String method, String parameters, String error) {
-        return Mono.just(buildHistoryRecord(endpoint, method, parameters, error, false))
+    public Mono<CallHistory> recordFailedRequest(String endpoint, String method, String username, String parameters,
+                                                 String error, long durationMs) {
+        return Mono.just(buildHistoryRecord(endpoint, method, username, parameters, error, false, durationMs))
                 .flatMap(this::saveHistoryRecord)
                 .checkpoint("record-failed-history");
     }
 
     private Mono<CallHistory> saveHistoryRecord(CallHistory history) {
-        return callHistoryRepository.save(history)
+        if (persistenceConfig.getMode() == HistoryPersistenceConfig.Mode.WRITE_BEHIND) {
+            return writeBehindQueue.enqueue(history)
+                    .doOnNext(enqueued -> log.debug("Historial encolado={}: {}", enqueued, history.getEndpoint()))
+                    .thenReturn(history);
+        }
+        if (persistenceConfig.getMode() == HistoryPersistenceConfig.Mode.KAFKA) {
+            return kafkaPublisher.enqueue(history)
+                    .doOnNext(published -> log.debug("Historial publicado={}: {}", published, history.getEndpoint()))
+                    .thenReturn(history);
+        }
+        if (writeAheadLog.shouldAbsorb()) {
+            return writeAheadLog.absorb(history).thenReturn(history);
+        }
+        // insert y no save: con el id ya asignado, save haría un upsert por _id
+        return callHistoryRepository.insert(history)
                 .subscribeOn(Schedulers.boundedElastic())
                 .timeout(timeoutConfig.getDatabaseOperation())
                 .doOnSuccess(saved -> log.info("Historial registrado: {} - {}", saved.getId(), saved.getEndpoint()))
-                .doOnError(e -> log.error("Error guardando historial: {}", e.getMessage()))
-                .onErrorResume(e -> Mono.empty());
+                .doOnError(e -> log.error("Error guardando historial, se deriva al WAL: {}", e.getMessage()))
+                .onErrorResume(e -> writeAheadLog.absorb(history).then(Mono.empty()));
     }
 
-    private CallHistory buildHistoryRecord(String endpoint, String method, String parameters, String responseOrError, boolean successful) {
+    private CallHistory buildHistoryRecord(String endpoint, String method, String username, String parameters,
+                                           String responseOrError, boolean successful, long durationMs) {
+        // El id se asigna acá para que reinsertar el registro (WAL, Kafka) no lo duplique
         return CallHistory.builder()
+                .id(new ObjectId().toHexString())
                 .timestamp(LocalDateTime.now())
                 .endpoint(endpoint)
                 .method(method)
-                .parameters(parameters)
+                .username(username)
+                .parameters(PayloadText.of(parameters))
                 .successful(successful)
-                .response(successful ? responseOrError : null)
-                .error(!successful ? responseOrError : null)
+                .response(successful ? PayloadText.of(responseOrError) : null)
+                .error(!successful ? PayloadText.of(responseOrError) : null)
+                .durationMs(durationMs)
                 .build();
     }
 }
@@ -3,17 +3,28 @@ package cl.tenpo.learning.reactive.tasks.task2.application;
 import cl.tenpo.learning.reactive.tasks.task2.application.port.PercentageService;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.PercentageCacheService;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.client.ExternalApiClient;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cluster.PushedPercentageHolder;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.coalescing.SingleFlight;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.PercentageConfig;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.ServiceUnavailableException;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Servicio para obtener el porcentaje desde una API externa con fallback a caché
  * Requisito: Se debe verificar siempre primero el servicio externo
+ * Las llamadas concurrentes comparten una única consulta al servicio externo (single-flight)
+ * Con el circuito abierto se responde directamente desde caché sin esperar timeouts ni reintentos
+ * La política de frescura (app.percentage.freshness-policy) permite responder con el último valor conocido
+ * En modo PUSH se usa el valor distribuido por el líder del cluster mientras esté vigente
  */
 @Service
 @Slf4j
@@ -22,17 +33,67 @@ public class ExternalPercentageService implements PercentageService {
 
     private final ExternalApiClient externalApiClient;
     private final PercentageCacheService cacheService;
+    private final SingleFlight<BigDecimal> percentageSingleFlight;
+    private final CircuitBreaker percentageCircuitBreaker;
+    private final PercentageConfig percentageConfig;
+    private final PushedPercentageHolder pushedPercentageHolder;
+
+    private final AtomicReference<PercentageSnapshot> lastKnown = new AtomicReference<>();
 
     @Override
     public Mono<BigDecimal> getPercentage() {
+        return Mono.defer(() -> pushedPercentageHolder.current()
+                .map(Mono::just)
+                .orElseGet(this::pullPercentage));
+    }
+
+    private Mono<BigDecimal> pullPercentage() {
+        return switch (percentageConfig.getFreshnessPolicy()) {
+            case STALE_WHILE_REVALIDATE -> staleWhileRevalidate();
+            case MAX_AGE -> withinMaxAge();
+            case ALWAYS_FRESH -> fetchWithFallback();
+        };
+    }
+
+    private Mono<BigDecimal> staleWhileRevalidate() {
+        return Mono.defer(() -> {
+            PercentageSnapshot snapshot = lastKnown.get();
+            if (snapshot != null) {
+                if (snapshot.isOlderThan(percentageConfig.getMaxAge())) {
+                    refreshInBackground();
+                }
+                return Mono.just(snapshot.value());
+            }
+            return cacheService.getCachedPercentage()
+                    .doOnNext(cached -> {
+                        log.debug("Respondiendo con último valor en caché mientras se revalida: {}", cached);
+                        refreshInBackground();
+                    })
+                    .switchIfEmpty(Mono.defer(this::fetchWithFallback));
+        });
+    }
+
+    private Mono<BigDecimal> withinMaxAge() {
+        return Mono.defer(() -> {
+            PercentageSnapshot snapshot = lastKnown.get();
+            if (snapshot != null && !snapshot.isOlderThan(percentageConfig.getMaxAge())) {
+                return Mono.just(snapshot.value());
+            }
+            return fetchWithFallback();
+        });
+    }
+
+    private void refreshInBackground() {
+        percentageSingleFlight.execute(this::fetchAndCache)
+                .subscribe(
+                        value -> log.debug("Porcentaje revalidado en segundo plano: {}", value),
+                        error -> log.warn("Error revalidando porcentaje en segundo plano: {}", error.getMessage()));
+    }
+
+    private Mono<BigDecimal> fetchWithFallback() {
         log.info("🚀🚀🚀 GETPERCENTAGE() CALLED - INTENTANDO OBTENER DEL SERVICIO EXTERNO PRIMERO 🚀🚀🚀");
-        
-        return externalApiClient.fetchPercentage()
-                .flatMap(percentage -> {
-                    log.info("✅✅✅ SERVICIO EXTERNO EXITOSO - ALMACENANDO EN CACHE: {} ✅✅✅", percentage);
-                    return cacheService.cachePercentage(percentage)
-                            .thenReturn(percentage);
-                })
+
+        return percentageSingleFlight.execute(this::fetchAndCache)
                 .onErrorResume(error -> {
                     log.error("🔴🔴🔴 ERROR EN SERVICIO EXTERNO: {} - INTENTANDO USAR VALOR EN CACHÉ 🔴🔴🔴", error.getMessage());
                     return cacheService.getCachedPercentage()
@@ -46,4 +107,21 @@ public class ExternalPercentageService implements PercentageService {
                 .doOnSuccess(val -> log.info("🎉🎉🎉 PERCENTAGE SERVICE SUCCESS: {} 🎉🎉🎉", val))
                 .doOnError(err -> log.error("💥💥💥 PERCENTAGE SERVICE ERROR: {} 💥💥💥", err.getMessage()));
     }
+
+    private Mono<BigDecimal> fetchAndCache() {
+        return percentageCircuitBreaker.execute(externalApiClient::fetchPercentage)
+                .flatMap(percentage -> {
+                    log.info("✅✅✅ SERVICIO EXTERNO EXITOSO - ALMACENANDO EN CACHE: {} ✅✅✅", percentage);
+                    lastKnown.set(new PercentageSnapshot(percentage, Instant.now()));
+                    return cacheService.cachePercentage(percentage)
+                            .thenReturn(percentage);
+                });
+    }
+
+    private record PercentageSnapshot(BigDecimal value, Instant fetchedAt) {
+
+        boolean isOlderThan(Duration maxAge) {
+            return fetchedAt.plus(maxAge).isBefore(Instant.now());
+        }
+    }
 }
@@ -0,0 +1,112 @@
+package cl.tenpo.learning.reactive.tasks.task2.application;
+
+import cl.tenpo.learning.reactive.tasks.task2.application.port.HistoryStatsService;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.EndpointMinuteStats;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.EndpointStats;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryStats;
+import cl.tenpo.learning.reactive.tasks.task2.domain.stats.LatencySketch;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryStatsConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.EndpointStatsRepository;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.stats.HistoryStatsAggregator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Responde estadísticas del historial desde los rollups por minuto (persistidos + pendientes en memoria).
+ * El costo depende de minutos x endpoints del rango, no de la cantidad de registros del historial.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HistoryStatsServiceImpl implements HistoryStatsService {
+
+    private final EndpointStatsRepository statsRepository;
+    private final HistoryStatsAggregator statsAggregator;
+    private final HistoryStatsConfig statsConfig;
+    private final TimeoutConfig timeoutConfig;
+
+    @Override
+    public Mono<HistoryStats> getStats(LocalDateTime from, LocalDateTime to, String endpoint) {
+        if (!from.isBefore(to)) {
+            return Mono.error(new IllegalArgumentException("El rango de estadísticas debe cumplir from < to"));
+        }
+        LocalDateTime firstMinute = from.truncatedTo(ChronoUnit.MINUTES);
+        Range<LocalDateTime> minutes = Range.rightOpen(firstMinute, to);
+        Flux<EndpointMinuteStats> persisted = (endpoint == null
+                ? statsRepository.findByMinuteBetween(minutes)
+                : statsRepository.findByEndpointAndMinuteBetween(endpoint, minutes))
+                .timeout(timeoutConfig.getDatabaseOperation());
+        Flux<EndpointMinuteStats> pending = Flux.defer(() -> Flux.fromIterable(statsAggregator.pending()))
+                .filter(stats -> !stats.getMinute().isBefore(firstMinute) && stats.getMinute().isBefore(to))
+                .filter(stats -> endpoint == null || endpoint.equals(stats.getEndpoint()));
+
+        return Flux.concat(persisted, pending)
+                .collect(LinkedHashMap<String, Accumulator>::new, (accumulators, stats) -> accumulators
+                        .computeIfAbsent(stats.getEndpoint() + " " + stats.getMethod(),
+                                key -> new Accumulator(stats.getEndpoint(), stats.getMethod(), statsConfig.getRelativeAccuracy()))
+                        .add(stats))
+                .map(accumulators -> HistoryStats.builder()
+                        .from(from)
+                        .to(to)
+                        .endpoints(accumulators.values().stream()
+                                .map(Accumulator::toEndpointStats)
+                                .sorted(Comparator.comparingLong(EndpointStats::getCalls).reversed())
+                                .toList())
+                        .build())
+                .doOnSuccess(stats -> log.debug("Estadísticas de historial [{} - {}): {} endpoints", from, to,
+                        stats.getEndpoints().size()))
+                .checkpoint("history-stats");
+    }
+
+    private static final class Accumulator {
+
+        private final String endpoint;
+        private final String method;
+        private final LatencySketch sketch;
+        private long successes;
+        private long failures;
+        private long durationSumMicros;
+
+        Accumulator(String endpoint, String method, double relativeAccuracy) {
+            this.endpoint = endpoint;
+            this.method = method;
+            this.sketch = new LatencySketch(relativeAccuracy);
+        }
+
+        void add(EndpointMinuteStats stats) {
+            successes += stats.getSuccesses();
+            failures += stats.getFailures();
+            durationSumMicros += stats.getDurationSumMicros();
+            if (stats.getLatency() != null) {
+                stats.getLatency().forEach((bucket, count) -> sketch.addBucket(Integer.parseInt(bucket), count));
+            }
+        }
+
+        EndpointStats toEndpointStats() {
+            long calls = successes + failures;
+            return EndpointStats.builder()
+                    .endpoint(endpoint)
+                    .method(method)
+                    .calls(calls)
+                    .successes(successes)
+                    .failures(failures)
+                    .successRate(calls == 0 ? 0 : (double) successes / calls)
+                    .avgLatencyMs(calls == 0 ? 0 : durationSumMicros / 1000.0 / calls)
+                    .p50LatencyMs(sketch.quantile(0.50) / 1000.0)
+                    .p95LatencyMs(sketch.quantile(0.95) / 1000.0)
+                    .p99LatencyMs(sketch.quantile(0.99) / 1000.0)
+                    .build();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package cl.tenpo.learning.reactive.tasks.task2.application.port;
 
+import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationBatchItem;
 import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationRequest;
 import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
 
@@ -11,4 +13,6 @@ public interface CalculationService {
     
     Mono<CalculationResponse> processCalculationRequest(CalculationRequest request);
 
+    Flux<CalculationBatchItem> processBatch(Flux<CalculationRequest> requests);
+
 }
@@ -1,8 +1,11 @@
 package cl.tenpo.learning.reactive.tasks.task2.application.port;
 import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryFilter;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryPage;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.time.LocalDateTime;
 import java.util.List;
 public interface CallHistoryService {
     
@@ -14,7 +17,18 @@ public interface CallHistoryService {
     
     Mono<List<CallHistory>> getCallHistoryFromParams(Integer page, Integer size);
     
-    Mono<CallHistory> recordSuccessfulRequest(String endpoint, String method, String parameters, String response);
+    Mono<HistoryPage> getHistoryPage(String cursor, Integer size, HistoryFilter filter);
     
-    Mono<CallHistory> recordFailedRequest(String endpoint, String method, String parameters, String error);
+    Mono<HistoryPage> getHistoryPageForAuthorizedUser(String username, String cursor, Integer size, HistoryFilter filter);
+    
+    /**
+     * Resuelve la autorización antes de emitir el stream, así el error llega antes de confirmar la respuesta.
+     */
+    Mono<Flux<CallHistory>> exportHistoryForAuthorizedUser(String username, LocalDateTime from, LocalDateTime to);
+    
+    Mono<CallHistory> recordSuccessfulRequest(String endpoint, String method, String username, String parameters,
+                                              String response, long durationMs);
+    
+    Mono<CallHistory> recordFailedRequest(String endpoint, String method, String username, String parameters,
+                                          String error, long durationMs);
 }
@@ -0,0 +1,11 @@
+package cl.tenpo.learning.reactive.tasks.task2.application.port;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryStats;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface HistoryStatsService {
+
+    Mono<HistoryStats> getStats(LocalDateTime from, LocalDateTime to, String endpoint);
+}
@@ -0,0 +1,119 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.arithmetic;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Aritmética de punto fijo sobre long para (n1 + n2) + (n1 + n2) * porcentaje.
+ * Con suma A·10^-s y porcentaje B·10^-t el resultado exacto es A·(10^t + B)·10^-(s+t),
+ * el mismo valor y escala que produce BigDecimal. Si algún operando tiene más de 15 dígitos,
+ * escala negativa o mayor a 18, o la operación desborda, se usa el cálculo con BigDecimal.
+ */
+public final class FixedPointArithmetic {
+
+    public static final int RESULT_SCALE = 2;
+
+    private static final int MAX_PRECISION = 18;
+    // Dígitos con los que el unscaled se recupera exacto desde doubleValue (10^15 < 2^50)
+    private static final int MAX_OPERAND_PRECISION = 15;
+    private static final long[] POWERS_OF_TEN = new long[MAX_PRECISION + 1];
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[MAX_PRECISION + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1L;
+        DOUBLE_POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i <= MAX_PRECISION; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+            DOUBLE_POWERS_OF_TEN[i] = POWERS_OF_TEN[i];
+        }
+    }
+
+    private FixedPointArithmetic() {
+    }
+
+    /**
+     * Resultado exacto, sin redondeo (equivalente a sum.add(sum.multiply(percentage))).
+     */
+    public static BigDecimal applyPercentageExact(BigDecimal number1, BigDecimal number2, BigDecimal percentage) {
+        if (!supported(number1, number2, percentage)) {
+            return applyPercentageExactSlow(number1, number2, percentage);
+        }
+        try {
+            int scale = Math.max(number1.scale(), number2.scale()) + percentage.scale();
+            return BigDecimal.valueOf(exactUnscaled(number1, number2, percentage), scale);
+        } catch (ArithmeticException overflow) {
+            return applyPercentageExactSlow(number1, number2, percentage);
+        }
+    }
+
+    /**
+     * Resultado redondeado HALF_UP a {@link #RESULT_SCALE} decimales.
+     */
+    public static BigDecimal applyPercentage(BigDecimal number1, BigDecimal number2, BigDecimal percentage) {
+        if (!supported(number1, number2, percentage)) {
+            return applyPercentageSlow(number1, number2, percentage);
+        }
+        try {
+            int scale = Math.max(number1.scale(), number2.scale()) + percentage.scale();
+            return BigDecimal.valueOf(rescale(exactUnscaled(number1, number2, percentage), scale), RESULT_SCALE);
+        } catch (ArithmeticException overflow) {
+            return applyPercentageSlow(number1, number2, percentage);
+        }
+    }
+
+    static BigDecimal applyPercentageExactSlow(BigDecimal number1, BigDecimal number2, BigDecimal percentage) {
+        BigDecimal sum = number1.add(number2);
+        return sum.add(sum.multiply(percentage));
+    }
+
+    static BigDecimal applyPercentageSlow(BigDecimal number1, BigDecimal number2, BigDecimal percentage) {
+        return applyPercentageExactSlow(number1, number2, percentage).setScale(RESULT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static boolean supported(BigDecimal number1, BigDecimal number2, BigDecimal percentage) {
+        int scale1 = number1.scale();
+        int scale2 = number2.scale();
+        int percentageScale = percentage.scale();
+        if (scale1 < 0 || scale2 < 0 || percentageScale < 0
+                || scale1 > MAX_PRECISION || scale2 > MAX_PRECISION || percentageScale > MAX_PRECISION) {
+            return false;
+        }
+        int sumScale = Math.max(scale1, scale2);
+        return sumScale + percentageScale - RESULT_SCALE <= MAX_PRECISION
+                && number1.precision() <= MAX_OPERAND_PRECISION
+                && number2.precision() <= MAX_OPERAND_PRECISION
+                && percentage.precision() <= MAX_OPERAND_PRECISION;
+    }
+
+    private static long exactUnscaled(BigDecimal number1, BigDecimal number2, BigDecimal percentage) {
+        int sumScale = Math.max(number1.scale(), number2.scale());
+        long sum = Math.addExact(
+                Math.multiplyExact(unscaled(number1), POWERS_OF_TEN[sumScale - number1.scale()]),
+                Math.multiplyExact(unscaled(number2), POWERS_OF_TEN[sumScale - number2.scale()]));
+        long factor = Math.addExact(POWERS_OF_TEN[percentage.scale()], unscaled(percentage));
+        return Math.multiplyExact(sum, factor);
+    }
+
+    /**
+     * unscaledValue() crea un BigInteger (y su int[]) por operando. Con precisión ≤ 15 y escala ≤ 18,
+     * doubleValue() es u / 10^s correctamente redondeado y sin asignar, y multiplicar por 10^s queda
+     * a menos de 0,5 de u, así que redondear devuelve u exacto.
+     */
+    static long unscaled(BigDecimal value) {
+        return Math.round(value.doubleValue() * DOUBLE_POWERS_OF_TEN[value.scale()]);
+    }
+
+    private static long rescale(long unscaled, int scale) {
+        if (scale <= RESULT_SCALE) {
+            return Math.multiplyExact(unscaled, POWERS_OF_TEN[RESULT_SCALE - scale]);
+        }
+        long divisor = POWERS_OF_TEN[scale - RESULT_SCALE];
+        long quotient = unscaled / divisor;
+        long remainder = unscaled % divisor;
+        // HALF_UP: el empate se aleja de cero, igual que BigDecimal
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(unscaled);
+        }
+        return quotient;
+    }
+}
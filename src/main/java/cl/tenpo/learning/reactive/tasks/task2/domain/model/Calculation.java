@@ -1,4 +1,5 @@
 package cl.tenpo.learning.reactive.tasks.task2.domain.model;
+import cl.tenpo.learning.reactive.tasks.task2.domain.arithmetic.FixedPointArithmetic;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,10 +17,8 @@ public class Calculation {
     private BigDecimal result;
     
     public static Calculation of(BigDecimal number1, BigDecimal number2, BigDecimal percentage) {
-        BigDecimal sum = number1.add(number2);
-        BigDecimal percentageAmount = sum.multiply(percentage);
-        BigDecimal result = sum.add(percentageAmount);
-        
+        BigDecimal result = FixedPointArithmetic.applyPercentageExact(number1, number2, percentage);
+
         return Calculation.builder()
                 .number1(number1)
                 .number2(number2)
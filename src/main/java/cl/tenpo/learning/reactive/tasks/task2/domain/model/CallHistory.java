@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(collection = "call_history")
+@Document(collection = "#{@historyStorageConfig.collectionName}")
 public class CallHistory {
 
     @Id
@@ -20,18 +20,20 @@ public class CallHistory {
     private LocalDateTime timestamp;
     private String endpoint;
     private String method;
-    private String parameters;
-    private String response;
-    private String error;
+    private String username;
+    private PayloadText parameters;
+    private PayloadText response;
+    private PayloadText error;
     private boolean successful;
+    private Long durationMs;
 
     public static CallHistory createSuccessfulRecord(String endpoint, String method, String parameters, String response) {
         return CallHistory.builder()
                 .timestamp(LocalDateTime.now())
                 .endpoint(endpoint)
                 .method(method)
-                .parameters(parameters)
-                .response(response)
+                .parameters(PayloadText.of(parameters))
+                .response(PayloadText.of(response))
                 .successful(true)
                 .build();
     }
@@ -41,8 +43,8 @@ public class CallHistory {
                 .timestamp(LocalDateTime.now())
                 .endpoint(endpoint)
                 .method(method)
-                .parameters(parameters)
-                .error(error)
+                .parameters(PayloadText.of(parameters))
+                .error(PayloadText.of(error))
                 .successful(false)
                 .build();
     }
@@ -0,0 +1,43 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rollup de un minuto para un endpoint y método: contadores y buckets del sketch de latencias
+ * (índice del bucket -> conteo, en microsegundos). Se actualiza con $inc, así varias instancias suman sobre el mismo documento.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "call_history_stats")
+@CompoundIndex(name = "endpoint_minute", def = "{'endpoint': 1, 'minute': 1}")
+public class EndpointMinuteStats {
+
+    @Id
+    private String id;
+    private String endpoint;
+    private String method;
+    @Indexed
+    private LocalDateTime minute;
+    private long successes;
+    private long failures;
+    private long durationSumMicros;
+    @Builder.Default
+    private Map<String, Long> latency = new HashMap<>();
+
+    public static String idOf(String endpoint, String method, LocalDateTime minute) {
+        return endpoint + "|" + method + "|" + minute;
+    }
+}
@@ -0,0 +1,27 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estadísticas de un endpoint y método en el rango consultado. Latencias en milisegundos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointStats {
+
+    private String endpoint;
+    private String method;
+    private long calls;
+    private long successes;
+    private long failures;
+    private double successRate;
+    private double avgLatencyMs;
+    private double p50LatencyMs;
+    private double p95LatencyMs;
+    private double p99LatencyMs;
+}
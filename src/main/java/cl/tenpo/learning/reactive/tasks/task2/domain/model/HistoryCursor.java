@@ -0,0 +1,37 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de un registro del historial en el orden (timestamp DESC, id DESC).
+ * Se expone al cliente como un token opaco en base64url.
+ */
+public record HistoryCursor(LocalDateTime timestamp, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static HistoryCursor of(CallHistory history) {
+        return new HistoryCursor(history.getTimestamp(), history.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HistoryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Cursor de historial inválido");
+            }
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de historial inválido", e);
+        }
+    }
+}
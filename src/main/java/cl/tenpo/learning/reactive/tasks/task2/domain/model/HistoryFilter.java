@@ -0,0 +1,39 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Filtros opcionales de la consulta de historial: igualdad por endpoint, método, resultado y usuario,
+ * y rango [from, to) sobre timestamp. Un campo null no filtra.
+ */
+public record HistoryFilter(String endpoint,
+                            String method,
+                            Boolean successful,
+                            String username,
+                            LocalDateTime from,
+                            LocalDateTime to) {
+
+    private static final HistoryFilter NONE = new HistoryFilter(null, null, null, null, null, null);
+
+    public HistoryFilter {
+        endpoint = blankToNull(endpoint);
+        method = blankToNull(method) != null ? method.trim().toUpperCase(Locale.ROOT) : null;
+        username = blankToNull(username);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("El rango del historial debe cumplir from < to");
+        }
+    }
+
+    public static HistoryFilter none() {
+        return NONE;
+    }
+
+    public boolean isEmpty() {
+        return equals(NONE);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
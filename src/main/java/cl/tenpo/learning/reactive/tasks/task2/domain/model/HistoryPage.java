@@ -0,0 +1,21 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del historial por cursor. next_cursor es null cuando no hay más registros.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryPage {
+
+    private List<CallHistory> items;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryStats {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<EndpointStats> endpoints;
+}
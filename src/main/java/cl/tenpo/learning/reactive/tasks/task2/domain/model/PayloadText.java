@@ -0,0 +1,70 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Texto de un payload del historial (parámetros, respuesta o error).
+ * Puede venir tal cual o en su forma codificada (comprimida) tal como se leyó de Mongo; en ese caso
+ * sólo se decodifica la primera vez que alguien pide el texto, por ejemplo al serializarlo al cliente.
+ */
+public final class PayloadText {
+
+    private final byte[] encoded;
+    private final Function<byte[], String> decoder;
+    private volatile String text;
+
+    private PayloadText(String text, byte[] encoded, Function<byte[], String> decoder) {
+        this.text = text;
+        this.encoded = encoded;
+        this.decoder = decoder;
+    }
+
+    @JsonCreator
+    public static PayloadText of(String text) {
+        return text == null ? null : new PayloadText(text, null, null);
+    }
+
+    public static PayloadText encoded(byte[] encoded, Function<byte[], String> decoder) {
+        return new PayloadText(null, encoded, decoder);
+    }
+
+    @JsonValue
+    public String text() {
+        String current = text;
+        if (current == null) {
+            current = decoder.apply(encoded);
+            text = current;
+        }
+        return current;
+    }
+
+    /**
+     * Forma codificada original, si el valor se leyó comprimido; permite re-escribirlo sin recomprimir.
+     */
+    public byte[] encodedForm() {
+        return encoded;
+    }
+
+    public boolean isDecoded() {
+        return text != null;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof PayloadText payload && Objects.equals(text(), payload.text()));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(text());
+    }
+
+    @Override
+    public String toString() {
+        return text();
+    }
+}
@@ -0,0 +1,83 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.stats;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sketch de latencias con buckets logarítmicos (estilo DDSketch): cada bucket i cubre (gamma^(i-1), gamma^i],
+ * así un cuantil tiene error relativo acotado por relativeAccuracy. Dos sketches con la misma precisión
+ * se combinan sumando los conteos de cada bucket, por lo que los rollups de distintos minutos e instancias
+ * se pueden unir en memoria o con $inc en Mongo. Los valores son enteros positivos (microsegundos).
+ */
+public final class LatencySketch {
+
+    private final double gamma;
+    private final double logGamma;
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long count;
+
+    public LatencySketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy debe estar entre 0 y 1: " + relativeAccuracy);
+        }
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public int bucketIndex(long value) {
+        return (int) Math.ceil(Math.log(Math.max(1, value)) / logGamma);
+    }
+
+    public void add(long value) {
+        addBucket(bucketIndex(value), 1);
+    }
+
+    public void addBucket(int index, long bucketCount) {
+        if (bucketCount <= 0) {
+            return;
+        }
+        buckets.merge(index, bucketCount, Long::sum);
+        count += bucketCount;
+    }
+
+    public void merge(LatencySketch other) {
+        other.buckets.forEach(this::addBucket);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Conteo por índice de bucket, en orden ascendente.
+     */
+    public Map<Integer, Long> buckets() {
+        return Collections.unmodifiableMap(buckets);
+    }
+
+    /**
+     * Estimación del cuantil q (0..1); 0 si el sketch está vacío.
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(Math.min(1.0, Math.max(0.0, q)) * (count - 1));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return representative(bucket.getKey());
+            }
+        }
+        return representative(buckets.lastKey());
+    }
+
+    private double representative(int index) {
+        if (index <= 0) {
+            return 1;
+        }
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+}
@@ -0,0 +1,81 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.CalculationResultCacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Resultados de cálculo indexados por operandos y versión del porcentaje ({@link PercentageVersionTracker}).
+ * Al cambiar la versión las entradas anteriores ya no se consultan y salen por tamaño o TTL.
+ * Hits y misses se exponen en cache.gets (cache=calculation-results) y la memoria estimada en
+ * calculation.result.cache.weight.
+ */
+@Component
+public class CalculationResultCache {
+
+    // Estimación por entrada: nodo de Caffeine + clave + tres BigDecimal compactos
+    private static final int BASE_ENTRY_WEIGHT = 216;
+    private static final int BIG_DECIMAL_WEIGHT = 40;
+
+    private final CalculationResultCacheConfig config;
+    private final PercentageVersionTracker versionTracker;
+    private final Cache<ResultKey, BigDecimal> cache;
+
+    public CalculationResultCache(CalculationResultCacheConfig config,
+                                  PercentageVersionTracker versionTracker,
+                                  MeterRegistry meterRegistry) {
+        this.config = config;
+        this.versionTracker = versionTracker;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(config.getTtl())
+                .maximumWeight(config.getMaxWeight())
+                .weigher(CalculationResultCache::weigh)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "calculation-results");
+        Gauge.builder("calculation.result.cache.weight", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Memoria estimada de la caché de resultados")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Optional<BigDecimal> get(BigDecimal num1, BigDecimal num2) {
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        return versionTracker.current()
+                .map(version -> cache.getIfPresent(new ResultKey(num1, num2, version.version())));
+    }
+
+    /**
+     * Sólo se almacena si el porcentaje usado sigue siendo el de la versión vigente.
+     */
+    public void put(BigDecimal num1, BigDecimal num2, BigDecimal percentage, BigDecimal result) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        versionTracker.current()
+                .filter(version -> version.value().compareTo(percentage) == 0)
+                .ifPresent(version -> cache.put(new ResultKey(num1, num2, version.version()), result));
+    }
+
+    private static int weigh(ResultKey key, BigDecimal result) {
+        return BASE_ENTRY_WEIGHT + extraWeight(key.num1()) + extraWeight(key.num2()) + extraWeight(result);
+    }
+
+    // Los valores de más de 18 dígitos guardan además un BigInteger con su arreglo de ints
+    private static int extraWeight(BigDecimal value) {
+        return value.precision() > 18 ? BIG_DECIMAL_WEIGHT + value.unscaledValue().bitLength() / 8 : 0;
+    }
+
+    private record ResultKey(BigDecimal num1, BigDecimal num2, long version) {
+    }
+}
@@ -0,0 +1,88 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializador binario compacto para valores calientes de caché.
+ * Formato: [MAGIC][tipo][payload]. BigDecimal se guarda como escala (int) + bytes del valor sin escala;
+ * Long, Integer, Boolean y String tienen su propia codificación. El resto se delega a JSON.
+ * La lectura acepta ambos formatos: los valores JSON existentes siguen siendo legibles (migración).
+ * El byte MAGIC (0xB1) no puede iniciar un documento JSON en UTF-8, por lo que no hay ambigüedad.
+ */
+public class CompactValueRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte TYPE_BIG_DECIMAL = 1;
+    static final byte TYPE_LONG = 2;
+    static final byte TYPE_INTEGER = 3;
+    static final byte TYPE_BOOLEAN = 4;
+    static final byte TYPE_STRING = 5;
+
+    private final RedisSerializer<Object> jsonSerializer;
+    private final boolean writeBinary;
+
+    public CompactValueRedisSerializer(RedisSerializer<Object> jsonSerializer, boolean writeBinary) {
+        this.jsonSerializer = jsonSerializer;
+        this.writeBinary = writeBinary;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!writeBinary || value == null) {
+            return jsonSerializer.serialize(value);
+        }
+        if (value instanceof BigDecimal decimal) {
+            byte[] unscaled = decimal.unscaledValue().toByteArray();
+            return ByteBuffer.allocate(2 + Integer.BYTES + unscaled.length)
+                    .put(MAGIC).put(TYPE_BIG_DECIMAL)
+                    .putInt(decimal.scale())
+                    .put(unscaled)
+                    .array();
+        }
+        if (value instanceof Long number) {
+            return ByteBuffer.allocate(2 + Long.BYTES).put(MAGIC).put(TYPE_LONG).putLong(number).array();
+        }
+        if (value instanceof Integer number) {
+            return ByteBuffer.allocate(2 + Integer.BYTES).put(MAGIC).put(TYPE_INTEGER).putInt(number).array();
+        }
+        if (value instanceof Boolean flag) {
+            return new byte[]{MAGIC, TYPE_BOOLEAN, (byte) (flag ? 1 : 0)};
+        }
+        if (value instanceof String text) {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.allocate(2 + utf8.length).put(MAGIC).put(TYPE_STRING).put(utf8).array();
+        }
+        return jsonSerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return jsonSerializer.deserialize(bytes);
+        }
+        if (bytes.length < 2) {
+            throw new SerializationException("Valor binario de caché truncado");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+        return switch (bytes[1]) {
+            case TYPE_BIG_DECIMAL -> {
+                int scale = buffer.getInt();
+                yield new BigDecimal(new BigInteger(bytes, buffer.position(), buffer.remaining()), scale);
+            }
+            case TYPE_LONG -> buffer.getLong();
+            case TYPE_INTEGER -> buffer.getInt();
+            case TYPE_BOOLEAN -> buffer.get() != 0;
+            case TYPE_STRING -> new String(bytes, 2, bytes.length - 2, StandardCharsets.UTF_8);
+            default -> throw new SerializationException("Tipo binario de caché desconocido: " + bytes[1]);
+        };
+    }
+}
@@ -2,37 +2,50 @@ package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache;
 
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.RedisConfig;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import com.github.benmanes.caffeine.cache.Cache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
-import java.util.function.Function;
-import java.util.function.Predicate;
 
+/**
+ * Caché de porcentaje en dos niveles: L1 en memoria (Caffeine) y Redis como L2 compartido.
+ * En Redis el valor se guarda con el codec que corresponda a su clave (ver {@link RedisTemplateSelector}).
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class PercentageCacheService {
     
-    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final RedisTemplateSelector redisTemplateSelector;
     private final TimeoutConfig timeoutConfig;
+    private final Cache<String, BigDecimal> percentageL1Cache;
+    private final PercentageVersionTracker versionTracker;
 
     public Mono<BigDecimal> getCachedPercentage() {
-        return reactiveRedisTemplate.opsForValue().get(RedisConfig.PERCENTAGE_KEY)
+        return Mono.justOrEmpty(percentageL1Cache.getIfPresent(RedisConfig.PERCENTAGE_KEY))
+                .doOnNext(value -> log.debug("Valor recuperado de caché L1: {}", value))
+                .switchIfEmpty(Mono.defer(this::getFromRedis));
+    }
+
+    private Mono<BigDecimal> getFromRedis() {
+        return redisTemplateSelector.forKey(RedisConfig.PERCENTAGE_KEY).opsForValue().get(RedisConfig.PERCENTAGE_KEY)
                 .timeout(timeoutConfig.getCacheOperation())
                 .doOnNext(value -> log.debug("Valor recuperado de caché: {}", value))
                 .doOnError(error -> log.error("Error accediendo a caché: {}", error.getMessage()))
                 .onErrorResume(e -> Mono.empty())
-                .flatMap(this::convertCachedValueToBigDecimal)
+                .map(PercentageCacheService::toBigDecimal)
+                .doOnNext(value -> percentageL1Cache.put(RedisConfig.PERCENTAGE_KEY, value))
                 .checkpoint("after-cache-retrieval");
     }
 
     public Mono<Boolean> cachePercentage(BigDecimal percentage) {
         log.info("Almacenando porcentaje en caché: {}", percentage);
-        return reactiveRedisTemplate.opsForValue()
+        percentageL1Cache.put(RedisConfig.PERCENTAGE_KEY, percentage);
+        versionTracker.record(percentage);
+        return redisTemplateSelector.forKey(RedisConfig.PERCENTAGE_KEY).opsForValue()
                 .set(RedisConfig.PERCENTAGE_KEY, percentage, RedisConfig.CACHE_TTL)
                 .timeout(timeoutConfig.getCacheOperation())
                 .doOnNext(result -> log.debug("Operación de caché completada: {}", result))
@@ -40,22 +53,27 @@ public class PercentageCacheService {
                 .onErrorReturn(false);
     }
 
-    private Mono<BigDecimal> convertCachedValueToBigDecimal(Object value) {
-        return Mono.justOrEmpty(value)
-                .flatMap(v -> tryConvert(v, String.class::isInstance, this::convertStringToBigDecimal)
-                        .switchIfEmpty(tryConvert(v, BigDecimal.class::isInstance, v1 -> Mono.just((BigDecimal) v1)))
-                        .switchIfEmpty(tryConvert(v, Number.class::isInstance, v1 -> Mono.just(new BigDecimal(((Number) v1).toString()))))
-                        .switchIfEmpty(Mono.error(new IllegalArgumentException("Cannot convert value to BigDecimal: " + v))));
-    }
-
-    private <T> Mono<BigDecimal> tryConvert(Object value, Predicate<Object> predicate, Function<Object, Mono<BigDecimal>> converter) {
-        return Mono.justOrEmpty(value)
-                .filter(predicate)
-                .flatMap(converter);
+    public void invalidateLocal() {
+        percentageL1Cache.invalidate(RedisConfig.PERCENTAGE_KEY);
     }
 
-    private Mono<BigDecimal> convertStringToBigDecimal(Object stringValue) {
-        return Mono.fromCallable(() -> new BigDecimal((String) stringValue))
-                .onErrorResume(e -> Mono.error(new IllegalArgumentException("Invalid decimal value: " + stringValue)));
+    /**
+     * Con el codec binario el valor ya llega como BigDecimal; el resto de casos cubre entradas JSON antiguas.
+     */
+    static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof String text) {
+            try {
+                return new BigDecimal(text);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid decimal value: " + text);
+            }
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        throw new IllegalArgumentException("Cannot convert value to BigDecimal: " + value);
     }
 }
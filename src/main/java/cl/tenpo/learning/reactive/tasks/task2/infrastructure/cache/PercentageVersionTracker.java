@@ -0,0 +1,43 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Versión monótona del porcentaje vigente. Cambia sólo cuando se almacena un valor distinto
+ * al actual, así que los resultados calculados con una versión anterior dejan de ser alcanzables.
+ */
+@Component
+public class PercentageVersionTracker {
+
+    private final AtomicReference<PercentageVersion> current = new AtomicReference<>();
+
+    public PercentageVersionTracker(MeterRegistry meterRegistry) {
+        Gauge.builder("percentage.version", current, reference -> reference.get() == null ? 0 : reference.get().version())
+                .description("Versión del porcentaje vigente")
+                .register(meterRegistry);
+    }
+
+    public PercentageVersion record(BigDecimal percentage) {
+        return current.updateAndGet(previous -> {
+            if (previous == null) {
+                return new PercentageVersion(1, percentage);
+            }
+            return previous.value().compareTo(percentage) == 0
+                    ? previous
+                    : new PercentageVersion(previous.version() + 1, percentage);
+        });
+    }
+
+    public Optional<PercentageVersion> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    public record PercentageVersion(long version, BigDecimal value) {
+    }
+}
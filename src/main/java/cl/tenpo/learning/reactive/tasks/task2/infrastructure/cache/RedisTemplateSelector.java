@@ -0,0 +1,34 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.RedisCodecConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Elige el template de Redis (binario o JSON) según el prefijo de la clave.
+ */
+@Component
+public class RedisTemplateSelector {
+
+    private final ReactiveRedisTemplate<String, Object> jsonTemplate;
+    private final ReactiveRedisTemplate<String, Object> compactTemplate;
+    private final RedisCodecConfig codecConfig;
+
+    public RedisTemplateSelector(@Qualifier("reactiveRedisTemplate") ReactiveRedisTemplate<String, Object> jsonTemplate,
+                                 @Qualifier("compactRedisTemplate") ReactiveRedisTemplate<String, Object> compactTemplate,
+                                 RedisCodecConfig codecConfig) {
+        this.jsonTemplate = jsonTemplate;
+        this.compactTemplate = compactTemplate;
+        this.codecConfig = codecConfig;
+    }
+
+    public ReactiveRedisTemplate<String, Object> forKey(String key) {
+        for (String prefix : codecConfig.getBinaryKeyPrefixes()) {
+            if (key.startsWith(prefix)) {
+                return compactTemplate;
+            }
+        }
+        return jsonTemplate;
+    }
+}
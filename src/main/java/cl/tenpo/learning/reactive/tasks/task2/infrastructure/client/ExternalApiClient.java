@@ -1,6 +1,7 @@
 package cl.tenpo.learning.reactive.tasks.task2.infrastructure.client;
 
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience.AdaptiveConcurrencyLimiter;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.retry.RetryStrategy;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -23,6 +24,8 @@ public class ExternalApiClient {
     private final WebClient webClient;
     private final TimeoutConfig timeoutConfig;
     private final RetryStrategy retryStrategy;
+    private final HedgedRequestExecutor hedgedRequestExecutor;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
 
     @Value("${app.api.external.base-url}${app.api.external.percentage-path}")
     private String percentagePath;
@@ -30,14 +33,20 @@ public class ExternalApiClient {
     public Mono<BigDecimal> fetchPercentage() {
         log.info("Fetching percentage from external API: {}", percentagePath);
 
-        return webClient.get()
-                .uri(percentagePath)
-                .retrieve()
-                .bodyToMono(BigDecimal.class)
-                .timeout(timeoutConfig.getExternalApi())
+        // Cada intento (primario y hedge) pasa por el limitador; un rechazo falla al instante sin
+        // disparar hedge ni reintento, y el llamador cae a la caché
+        return hedgedRequestExecutor.execute(() -> concurrencyLimiter.execute(this::requestPercentage))
                 .retryWhen(retryStrategy.getRetrySpec(BigDecimal.class))
                 .doOnSubscribe(s -> log.info("Initiating API call: {}", percentagePath))
                 .doOnNext(value -> log.info("Percentage obtained: {}", value))
                 .doOnError(err -> log.error("Error fetching percentage: {}", err.getMessage(), err));
     }
+
+    private Mono<BigDecimal> requestPercentage() {
+        return webClient.get()
+                .uri(percentagePath)
+                .retrieve()
+                .bodyToMono(BigDecimal.class)
+                .timeout(timeoutConfig.getExternalApi());
+    }
 }
@@ -0,0 +1,42 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presupuesto de hedges tipo token bucket: cada solicitud primaria deposita
+ * {@code ratio} tokens y cada hedge consume uno, con un máximo de {@code burst}.
+ * Así los hedges nunca superan ~ratio de la carga hacia el proveedor.
+ */
+public class HedgeBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long depositPerRequest;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+
+    public HedgeBudget(double ratio, int burst) {
+        this.depositPerRequest = Math.round(ratio * TOKEN);
+        this.maxTokens = burst * TOKEN;
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    public void deposit() {
+        tokens.accumulateAndGet(depositPerRequest, (current, delta) -> Math.min(maxTokens, current + delta));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    public double availableTokens() {
+        return (double) tokens.get() / TOKEN;
+    }
+}
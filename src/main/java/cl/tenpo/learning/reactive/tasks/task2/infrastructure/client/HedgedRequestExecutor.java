@@ -0,0 +1,130 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.client;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HedgingConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests: si el intento primario sigue pendiente al cumplirse el delay configurado
+ * (o el percentil observado), se lanza un segundo intento y gana el primero que
+ * responda con un valor; el perdedor se cancela. Un primario que falla antes del delay cancela
+ * el hedge y su error se propaga de inmediato; si ya había hedge, el error se propaga sólo cuando
+ * ambos intentos fallan, y es el del primario.
+ * Los hedges están limitados por un {@link HedgeBudget}.
+ */
+@Slf4j
+@Component
+public class HedgedRequestExecutor {
+
+    private final HedgingConfig hedgingConfig;
+    private final HedgeBudget budget;
+    private final Timer attemptLatency;
+    private final Counter hedgesFired;
+    private final Counter hedgesWon;
+    private final Counter hedgesRejected;
+
+    public HedgedRequestExecutor(HedgingConfig hedgingConfig, MeterRegistry meterRegistry) {
+        this.hedgingConfig = hedgingConfig;
+        this.budget = new HedgeBudget(hedgingConfig.getBudgetRatio(), hedgingConfig.getBudgetBurst());
+
+        Timer.Builder latencyBuilder = Timer.builder("hedging.attempt.latency")
+                .description("Latencia de intentos exitosos hacia el servicio externo")
+                .tag("name", "percentage");
+        if (hedgingConfig.getPercentile() > 0) {
+            latencyBuilder.publishPercentiles(hedgingConfig.getPercentile());
+        }
+        this.attemptLatency = latencyBuilder.register(meterRegistry);
+        this.hedgesFired = hedgeCounter(meterRegistry, "fired");
+        this.hedgesWon = hedgeCounter(meterRegistry, "won");
+        this.hedgesRejected = hedgeCounter(meterRegistry, "budget_exhausted");
+        Gauge.builder("hedging.budget.tokens", budget, HedgeBudget::availableTokens)
+                .description("Tokens disponibles para lanzar hedges")
+                .tag("name", "percentage")
+                .register(meterRegistry);
+    }
+
+    private Counter hedgeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("hedging.hedges")
+                .tag("name", "percentage")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> attempt) {
+        if (!hedgingConfig.isEnabled()) {
+            return timed(attempt);
+        }
+        return Mono.defer(() -> {
+            budget.deposit();
+            Duration delay = currentDelay();
+
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.One<Boolean> primaryFailed = Sinks.one();
+            Mono<Attempt<T>> primary = timed(attempt).map(value -> new Attempt<>(value, false))
+                    .doOnError(error -> {
+                        primaryError.set(error);
+                        primaryFailed.tryEmitValue(true);
+                    });
+            // El hedge es para primarios lentos: si el primario ya falló, el delay se cancela
+            Mono<Attempt<T>> hedge = Mono.delay(delay)
+                    .takeUntilOther(primaryFailed.asMono())
+                    .flatMap(tick -> launchHedge(attempt, delay));
+
+            // Sólo los valores compiten: un error de un intento no cancela al otro
+            return Mono.firstWithValue(primary, hedge)
+                    .onErrorMap(error -> primaryError.get() != null ? primaryError.get() : error)
+                    .doOnNext(result -> {
+                        if (result.hedged()) {
+                            hedgesWon.increment();
+                        }
+                    })
+                    .map(Attempt::value);
+        });
+    }
+
+    private <T> Mono<Attempt<T>> launchHedge(Supplier<Mono<T>> attempt, Duration delay) {
+        if (!budget.tryWithdraw()) {
+            hedgesRejected.increment();
+            log.debug("Presupuesto de hedges agotado, se espera al intento primario");
+            return Mono.empty();
+        }
+        hedgesFired.increment();
+        log.info("Intento primario sin respuesta tras {} ms - lanzando hedge", delay.toMillis());
+        return timed(attempt).map(value -> new Attempt<>(value, true));
+    }
+
+    private <T> Mono<T> timed(Supplier<Mono<T>> attempt) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.get()
+                    .doOnNext(value -> attemptLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Duration currentDelay() {
+        if (hedgingConfig.getPercentile() <= 0 || attemptLatency.count() < hedgingConfig.getMinSamples()) {
+            return hedgingConfig.getDelay();
+        }
+        for (ValueAtPercentile value : attemptLatency.takeSnapshot().percentileValues()) {
+            if (value.percentile() == hedgingConfig.getPercentile() && value.value() > 0) {
+                return Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+            }
+        }
+        return hedgingConfig.getDelay();
+    }
+
+    private record Attempt<T>(T value, boolean hedged) {
+    }
+}
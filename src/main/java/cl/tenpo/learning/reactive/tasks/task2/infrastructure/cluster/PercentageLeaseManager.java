@@ -0,0 +1,83 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cluster;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.PercentageDistributionConfig;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lease de liderazgo en Redis: SET NX PX para adquirirlo y PEXPIRE para renovarlo,
+ * ambos en un script atómico que verifica que el lease siga perteneciendo a este nodo.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.percentage.distribution.mode", havingValue = "push")
+public class PercentageLeaseManager {
+
+    private static final RedisScript<Long> ACQUIRE_OR_RENEW = RedisScript.of("""
+            local current = redis.call('GET', KEYS[1])
+            if current == false then
+                redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+                return 1
+            elseif current == ARGV[1] then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final PercentageDistributionConfig distributionConfig;
+
+    @Getter
+    private final String nodeId;
+
+    public PercentageLeaseManager(ReactiveStringRedisTemplate stringRedisTemplate,
+                                  PercentageDistributionConfig distributionConfig) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.distributionConfig = distributionConfig;
+        this.nodeId = resolveHostName() + "-" + UUID.randomUUID();
+    }
+
+    public Mono<Boolean> tryAcquireOrRenew() {
+        return stringRedisTemplate.execute(ACQUIRE_OR_RENEW,
+                        List.of(distributionConfig.getLeaseKey()),
+                        List.of(nodeId, String.valueOf(distributionConfig.getLeaseTtl().toMillis())))
+                .next()
+                .map(result -> result == 1L)
+                .defaultIfEmpty(false)
+                .doOnError(error -> log.warn("Error renovando lease de líder: {}", error.getMessage()))
+                .onErrorReturn(false);
+    }
+
+    public Mono<Boolean> release() {
+        return stringRedisTemplate.execute(RELEASE, List.of(distributionConfig.getLeaseKey()), List.of(nodeId))
+                .next()
+                .map(result -> result == 1L)
+                .defaultIfEmpty(false)
+                .onErrorReturn(false);
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cluster;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.PercentageCacheService;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.PercentageVersionTracker;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.client.ExternalApiClient;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.PercentageDistributionConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Distribución push del porcentaje en el cluster.
+ * Todos los nodos escuchan el canal de pub/sub y guardan el último valor en memoria;
+ * sólo el nodo que posee el lease consulta el servicio externo en cada intervalo,
+ * actualiza RedisConfig.PERCENTAGE_KEY y publica el valor. El lease se renueva en su propio ciclo.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.percentage.distribution.mode", havingValue = "push")
+public class PercentagePushCoordinator {
+
+    private final PercentageLeaseManager leaseManager;
+    private final PushedPercentageHolder pushedPercentageHolder;
+    private final ExternalApiClient externalApiClient;
+    private final CircuitBreaker percentageCircuitBreaker;
+    private final PercentageCacheService cacheService;
+    private final PercentageVersionTracker versionTracker;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final PercentageDistributionConfig distributionConfig;
+
+    private final AtomicBoolean leader = new AtomicBoolean(false);
+    private final Disposable.Composite subscriptions = Disposables.composite();
+    private final Counter receivedUpdates;
+    private final Counter publishedUpdates;
+
+    public PercentagePushCoordinator(PercentageLeaseManager leaseManager,
+                                     PushedPercentageHolder pushedPercentageHolder,
+                                     ExternalApiClient externalApiClient,
+                                     CircuitBreaker percentageCircuitBreaker,
+                                     PercentageCacheService cacheService,
+                                     PercentageVersionTracker versionTracker,
+                                     ReactiveStringRedisTemplate stringRedisTemplate,
+                                     PercentageDistributionConfig distributionConfig,
+                                     MeterRegistry meterRegistry) {
+        this.leaseManager = leaseManager;
+        this.pushedPercentageHolder = pushedPercentageHolder;
+        this.externalApiClient = externalApiClient;
+        this.percentageCircuitBreaker = percentageCircuitBreaker;
+        this.cacheService = cacheService;
+        this.versionTracker = versionTracker;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.distributionConfig = distributionConfig;
+        this.receivedUpdates = meterRegistry.counter("percentage.push.updates", "direction", "received");
+        this.publishedUpdates = meterRegistry.counter("percentage.push.updates", "direction", "published");
+        Gauge.builder("percentage.push.leader", leader, isLeader -> isLeader.get() ? 1 : 0)
+                .description("1 si este nodo posee el lease de líder")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        log.info("📡 Modo PUSH activo - nodo {} escuchando canal {}", leaseManager.getNodeId(), distributionConfig.getChannel());
+        subscriptions.add(listenForUpdates());
+        subscriptions.add(leaseRenewals().subscribe());
+        subscriptions.add(publications().subscribe());
+    }
+
+    private Disposable listenForUpdates() {
+        return stringRedisTemplate.listenToChannel(distributionConfig.getChannel())
+                .map(message -> new BigDecimal(message.getMessage()))
+                .doOnNext(percentage -> {
+                    receivedUpdates.increment();
+                    pushedPercentageHolder.update(percentage);
+                    versionTracker.record(percentage);
+                    log.debug("Porcentaje recibido por pub/sub: {}", percentage);
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Reconectando suscripción pub/sub: {}", signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    /**
+     * Renueva el lease cada lease-ttl/3, aparte de la consulta: un fetch lento no deja vencer el lease.
+     * Una renovación que no responde a tiempo cuenta como lease perdido.
+     */
+    Flux<Boolean> leaseRenewals() {
+        Duration renewInterval = distributionConfig.getLeaseTtl().dividedBy(3);
+        return Flux.interval(Duration.ZERO, renewInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> leaseManager.tryAcquireOrRenew()
+                        .timeout(renewInterval, Mono.just(false))
+                        .doOnNext(this::updateLeadership), 1);
+    }
+
+    /**
+     * Mientras este nodo sea líder consulta y publica cada poll-interval; los ticks que llegan con un
+     * fetch en curso se descartan en vez de acumularse.
+     */
+    Flux<Long> publications() {
+        return Flux.interval(Duration.ZERO, distributionConfig.getPollInterval())
+                .onBackpressureDrop()
+                .filter(tick -> leader.get())
+                .concatMap(tick -> fetchAndPublish()
+                        .onErrorResume(error -> {
+                            log.warn("Error en ciclo de publicación de porcentaje: {}", error.getMessage());
+                            return Mono.empty();
+                        }), 1);
+    }
+
+    private void updateLeadership(boolean isLeader) {
+        if (leader.getAndSet(isLeader) != isLeader) {
+            log.info("👑 Nodo {} {} el lease de líder", leaseManager.getNodeId(), isLeader ? "adquirió" : "perdió");
+        }
+    }
+
+    private Mono<Long> fetchAndPublish() {
+        return percentageCircuitBreaker.execute(externalApiClient::fetchPercentage)
+                // Si el lease se perdió durante el fetch, publica el nuevo líder
+                .filter(percentage -> leader.get())
+                .flatMap(percentage -> cacheService.cachePercentage(percentage)
+                        .then(stringRedisTemplate.convertAndSend(distributionConfig.getChannel(), percentage.toPlainString())))
+                .doOnNext(receivers -> {
+                    publishedUpdates.increment();
+                    log.debug("Porcentaje publicado a {} suscriptores", receivers);
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+        if (leader.get()) {
+            leaseManager.release()
+                    .doOnNext(released -> log.info("Lease de líder liberado: {}", released))
+                    .block(Duration.ofSeconds(2));
+        }
+    }
+}
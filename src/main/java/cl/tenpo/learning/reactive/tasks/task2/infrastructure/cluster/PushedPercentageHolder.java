@@ -0,0 +1,39 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cluster;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.PercentageDistributionConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Último porcentaje recibido por pub/sub en modo PUSH.
+ * Sólo se entrega mientras no supere stale-after; si el líder desaparece el valor
+ * envejece y los nodos vuelven al flujo pull normal.
+ */
+@Component
+@RequiredArgsConstructor
+public class PushedPercentageHolder {
+
+    private final PercentageDistributionConfig distributionConfig;
+    private final AtomicReference<PushedValue> latest = new AtomicReference<>();
+
+    public void update(BigDecimal percentage) {
+        latest.set(new PushedValue(percentage, Instant.now()));
+    }
+
+    public Optional<BigDecimal> current() {
+        if (distributionConfig.getMode() != PercentageDistributionConfig.Mode.PUSH) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(latest.get())
+                .filter(value -> value.receivedAt().plus(distributionConfig.getStaleAfter()).isAfter(Instant.now()))
+                .map(PushedValue::percentage);
+    }
+
+    private record PushedValue(BigDecimal percentage, Instant receivedAt) {
+    }
+}
@@ -0,0 +1,69 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalescing de llamadas concurrentes (single-flight).
+ * Todos los suscriptores que llegan mientras hay una ejecución en curso comparten
+ * esa misma ejecución y su resultado o error. Al terminar, la siguiente llamada
+ * dispara una ejecución nueva (no se cachea el resultado).
+ */
+@Slf4j
+public class SingleFlight<T> {
+
+    private final String name;
+    private final AtomicReference<Mono<T>> inFlight = new AtomicReference<>();
+    private final Counter leaderCalls;
+    private final Counter coalescedCalls;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.leaderCalls = Counter.builder("singleflight.calls")
+                .description("Llamadas que dispararon una ejecución real")
+                .tag("name", name)
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.coalescedCalls = Counter.builder("singleflight.calls")
+                .description("Llamadas que se unieron a una ejecución en curso")
+                .tag("name", name)
+                .tag("role", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("singleflight.in.flight", inFlight, ref -> ref.get() != null ? 1 : 0)
+                .description("Indica si hay una ejecución compartida en curso")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> joinOrLead(call));
+    }
+
+    private Mono<T> joinOrLead(Supplier<Mono<T>> call) {
+        Mono<T> current = inFlight.get();
+        if (current != null) {
+            coalescedCalls.increment();
+            log.debug("[{}] Uniéndose a ejecución en curso", name);
+            return current;
+        }
+
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        Mono<T> shared = Mono.defer(call)
+                .doFinally(signal -> inFlight.compareAndSet(self.get(), null))
+                .cache();
+        self.set(shared);
+
+        if (!inFlight.compareAndSet(null, shared)) {
+            return joinOrLead(call);
+        }
+        leaderCalls.increment();
+        log.debug("[{}] Iniciando nueva ejecución compartida", name);
+        return shared;
+    }
+}
@@ -0,0 +1,18 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Captura de bodies para el historial: sólo se conserva un prefijo de max-bytes por body,
+ * en buffers reutilizados de un pool de pool-size elementos.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.history.capture")
+public class BodyCaptureConfig {
+
+    private int maxBytes = 4096;
+    private int poolSize = 256;
+}
@@ -0,0 +1,23 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caché de resultados de cálculo por (num1, num2, versión del porcentaje).
+ * Con la caché activa un hit no consulta el servicio externo: el resultado puede usar un porcentaje
+ * de hasta ttl de antigüedad si nadie almacenó un valor nuevo en ese lapso.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.calculation.result-cache")
+public class CalculationResultCacheConfig {
+
+    private boolean enabled = false;
+    private Duration ttl = Duration.ofSeconds(60);
+    /** Memoria estimada máxima de la caché, en bytes. */
+    private long maxWeight = 16L * 1024 * 1024;
+}
@@ -0,0 +1,32 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.ConcurrencyLimitExceededException;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.circuit-breaker")
+public class CircuitBreakerConfig {
+
+    private boolean enabled = true;
+    private int slidingWindowSize = 10;
+    private int minimumCalls = 5;
+    private double failureRateThreshold = 50.0;
+    private Duration openDuration = Duration.ofSeconds(30);
+    private int halfOpenProbes = 3;
+
+    @Bean
+    public CircuitBreaker percentageCircuitBreaker(ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        return new CircuitBreaker("percentage", this, eventPublisher, meterRegistry, Clock.systemUTC(),
+                ConcurrencyLimitExceededException.class::isInstance);
+    }
+}
@@ -0,0 +1,17 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.coalescing.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+
+@Configuration
+public class CoalescingConfig {
+
+    @Bean
+    public SingleFlight<BigDecimal> percentageSingleFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("percentage", meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitConfig {
+
+    private boolean enabled = true;
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double smoothing = 0.2;
+    private double rttTolerance = 1.5;
+    private int longWindow = 600;
+    private double backoffRatio = 0.9;
+}
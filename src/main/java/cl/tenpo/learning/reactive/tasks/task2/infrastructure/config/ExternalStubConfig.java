@@ -0,0 +1,27 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Perfil de latencia y errores del stub in-process del proveedor de porcentaje (/external-api/percentage).
+ * Los valores por defecto reproducen el comportamiento original: la mitad de las respuestas tarda 10s.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.testing.external-stub")
+public class ExternalStubConfig {
+
+    /** Latencia base de toda respuesta. */
+    private Duration baseLatency = Duration.ZERO;
+    /** Variación aleatoria (uniforme) que se suma a la latencia base. */
+    private Duration jitter = Duration.ZERO;
+    /** Proporción de respuestas lentas (0.0 - 1.0). */
+    private double slowRatio = 0.5;
+    private Duration slowLatency = Duration.ofSeconds(10);
+    /** Proporción de respuestas con error (0.0 - 1.0). */
+    private double errorRatio = 0.0;
+}
@@ -0,0 +1,20 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.hedging")
+public class HedgingConfig {
+
+    private boolean enabled = false;
+    private Duration delay = Duration.ofMillis(300);
+    private double percentile = 0.0;
+    private long minSamples = 50;
+    private double budgetRatio = 0.1;
+    private int budgetBurst = 10;
+}
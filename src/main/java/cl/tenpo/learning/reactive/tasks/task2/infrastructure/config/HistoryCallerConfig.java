@@ -0,0 +1,18 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Usuario que se registra en el historial por cada llamada: el header username-header o, si no viene,
+ * el parámetro username. Ninguno está autenticado y el cliente los puede falsear, así que el valor sirve
+ * para filtrar y depurar, no como registro de auditoría.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.history.caller")
+public class HistoryCallerConfig {
+
+    private String usernameHeader = "X-Username";
+}
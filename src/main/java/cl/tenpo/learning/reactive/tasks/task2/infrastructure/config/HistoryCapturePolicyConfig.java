@@ -0,0 +1,48 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Política de muestreo y captura del historial por endpoint.
+ * Las reglas se evalúan en orden y, para cada clase de estado, gana la primera que coincide
+ * con path (patrón relativo al base-path), método y clase de estado (2xx, 4xx, 5xx...).
+ * Las requests sin regla aplicable se registran siempre con captura completa.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.history.policy")
+public class HistoryCapturePolicyConfig {
+
+    private List<Rule> rules = new ArrayList<>(List.of(
+            Rule.excluded("/actuator/**"),
+            Rule.excluded("/swagger*/**"),
+            Rule.excluded("/v3/api-docs/**")));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rule {
+
+        private String path;
+        /** Métodos HTTP; vacío aplica a todos */
+        private List<String> methods = new ArrayList<>();
+        /** Clases de estado (2xx, 4xx, 5xx...); vacío aplica a todas */
+        private List<String> statuses = new ArrayList<>();
+        /** Fracción de requests que se registran: 0 no registra ninguna, 1 registra todas */
+        private double sampleRate = 1.0;
+        private boolean captureBodies = true;
+        /** Prefijo máximo por body; sin valor usa app.history.capture.max-bytes */
+        private Integer maxBodyBytes;
+
+        static Rule excluded(String path) {
+            return new Rule(path, new ArrayList<>(), new ArrayList<>(), 0.0, false, null);
+        }
+    }
+}
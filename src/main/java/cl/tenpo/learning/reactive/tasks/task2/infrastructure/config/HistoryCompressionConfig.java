@@ -0,0 +1,40 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.PayloadTextConverter;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+/**
+ * Compresión de parameters/response/error del historial. Los payloads desde threshold-bytes (UTF-8)
+ * se guardan como binario deflate (con diccionario si use-dictionary); los menores, o los que no se
+ * achican, quedan como texto. La lectura acepta ambas formas siempre, aunque enabled sea false.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.history.compression")
+public class HistoryCompressionConfig {
+
+    private static final List<String> PAYLOAD_PROPERTIES = List.of("parameters", "response", "error");
+
+    private boolean enabled = true;
+    private int thresholdBytes = 256;
+    private int level = 6;
+    private boolean useDictionary = true;
+
+    /**
+     * Los payloads de {@link CallHistory} se convierten con la instancia de {@link PayloadTextConverter}
+     * del contexto; con @ValueConverter Spring Data podría crearla por reflexión e ignorar esta configuración.
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(PayloadTextConverter payloadTextConverter) {
+        return MongoCustomConversions.create(adapter -> adapter.configurePropertyConversions(registrar ->
+                PAYLOAD_PROPERTIES.forEach(property ->
+                        registrar.registerConverter(CallHistory.class, property, payloadTextConverter))));
+    }
+}
@@ -0,0 +1,17 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exportación en streaming del historial: batch-size es el tamaño de cada lote del cursor de Mongo
+ * y también la demanda que se pide aguas arriba, así la memoria no depende del total exportado.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.history.export")
+public class HistoryExportConfig {
+
+    private int batchSize = 500;
+}
@@ -0,0 +1,32 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Modo KAFKA del historial: el filtro publica eventos a app.kafka.topics.call-history y un consumidor
+ * aparte los escribe en Mongo. El productor prioriza throughput (lotes grandes, linger y lz4) y el
+ * consumidor inserta en lotes de consumer-batch-size o cada consumer-batch-timeout.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.history.kafka")
+public class HistoryKafkaConfig {
+
+    /**
+     * Eventos pendientes de entregar al productor; si se llena se descartan en vez de frenar la request.
+     */
+    private int queueCapacity = 10_000;
+    private int producerBatchBytes = 131_072;
+    private Duration linger = Duration.ofMillis(20);
+    private String compressionType = "lz4";
+    private String acks = "1";
+
+    private String consumerGroup = "call-history-writer";
+    private int consumerBatchSize = 500;
+    private Duration consumerBatchTimeout = Duration.ofSeconds(1);
+    private Duration writeRetryMaxBackoff = Duration.ofSeconds(30);
+}
@@ -0,0 +1,40 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Persistencia del historial de llamadas.
+ * SYNC guarda cada registro antes de completar la respuesta; WRITE_BEHIND lo encola en memoria
+ * y lo escribe en lotes por tamaño (batch-size) o tiempo (flush-interval). KAFKA lo publica en un tópico
+ * y un consumidor aparte lo escribe en Mongo (ver {@link HistoryKafkaConfig}).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.history.persistence")
+public class HistoryPersistenceConfig {
+
+    public enum Mode {
+        SYNC, WRITE_BEHIND, KAFKA
+    }
+
+    /**
+     * Qué hacer cuando la cola se llena: DROP descarta, SAMPLE conserva sólo una fracción
+     * desde sample-threshold de ocupación, BLOCK espera espacio hasta block-timeout.
+     */
+    public enum OverflowPolicy {
+        DROP, SAMPLE, BLOCK
+    }
+
+    private Mode mode = Mode.WRITE_BEHIND;
+    private int queueCapacity = 10_000;
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private double sampleThreshold = 0.8;
+    private double sampleRate = 0.1;
+    private Duration blockTimeout = Duration.ofMillis(200);
+}
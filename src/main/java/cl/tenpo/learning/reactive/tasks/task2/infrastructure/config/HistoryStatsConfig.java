@@ -0,0 +1,22 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Estadísticas incrementales del historial: rollups por endpoint y minuto que se acumulan en memoria
+ * y se escriben en Mongo cada flush-interval. relative-accuracy es el error relativo de los percentiles
+ * y debe ser igual en todas las instancias para que los sketches se puedan sumar.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.history.stats")
+public class HistoryStatsConfig {
+
+    private boolean enabled = true;
+    private Duration flushInterval = Duration.ofSeconds(10);
+    private double relativeAccuracy = 0.02;
+}
@@ -0,0 +1,40 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.Duration;
+
+/**
+ * Layout de almacenamiento del historial.
+ * STANDARD usa una colección normal; TIME_SERIES una colección time-series de MongoDB (timeField timestamp,
+ * metaField endpoint) que agrupa los registros en buckets internos. Como una colección existente no se puede
+ * convertir, TIME_SERIES usa su propia colección. retention aplica expiración por TTL en ambos layouts.
+ * En TIME_SERIES _id no es único: no admite el modo kafka ni el WAL (ver HistoryDeduplicationGuard).
+ */
+@Data
+@Configuration("historyStorageConfig")
+@ConfigurationProperties(prefix = "app.history.storage")
+public class HistoryStorageConfig {
+
+    public enum Layout {
+        STANDARD, TIME_SERIES
+    }
+
+    private Layout layout = Layout.STANDARD;
+    private String collection = "call_history";
+    private String timeSeriesCollection = "call_history_ts";
+    private Granularity granularity = Granularity.SECONDS;
+    /** Sin valor (o cero) los registros no expiran */
+    private Duration retention;
+
+    public String getCollectionName() {
+        return layout == Layout.TIME_SERIES ? timeSeriesCollection : collection;
+    }
+
+    public boolean hasRetention() {
+        return retention != null && !retention.isZero() && !retention.isNegative();
+    }
+}
@@ -0,0 +1,28 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * WAL local del historial: cuando Mongo falla los registros se escriben en segmentos mapeados en memoria
+ * bajo directory y se reinsertan después a replay-rate registros por segundo, en lotes de replay-batch-size.
+ * Con Mongo caído el replay se reintenta cada retry-interval. max-disk-bytes acota el espacio ocupado.
+ * Viene desactivado: al activarlo directory es obligatorio y debe ser absoluto, para que los segmentos no
+ * terminen en el directorio desde donde se levantó la JVM.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.history.wal")
+public class HistoryWalConfig {
+
+    private boolean enabled = false;
+    private String directory;
+    private int segmentBytes = 16 * 1024 * 1024;
+    private long maxDiskBytes = 1024L * 1024 * 1024;
+    private int replayBatchSize = 200;
+    private int replayRate = 1000;
+    private Duration retryInterval = Duration.ofSeconds(5);
+}
@@ -1,5 +1,7 @@
 package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
 
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.event.CallHistoryEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -20,6 +22,9 @@ public class KafkaConfig {
 
     @Value("${app.kafka.topics.retry-exhausted}")
     private String retryExhaustedTopic;
+
+    @Value("${app.kafka.topics.call-history}")
+    private String callHistoryTopic;
     
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
@@ -30,6 +35,27 @@ public class KafkaConfig {
         return new ReactiveKafkaProducerTemplate<>(SenderOptions.create(props));
     }
 
+    /**
+     * Productor del historial: sin headers de tipo, con lotes más grandes y compresión; un registro
+     * que falla se informa en su SenderResult sin cortar el flujo del resto.
+     */
+    @Bean
+    public ReactiveKafkaProducerTemplate<String, CallHistoryEvent> callHistoryProducerTemplate(
+            ObjectMapper objectMapper, HistoryKafkaConfig historyKafkaConfig) {
+        Map<String, Object> props = createProducerProperties();
+        props.remove(JsonSerializer.TYPE_MAPPINGS);
+        props.put(ProducerConfig.ACKS_CONFIG, historyKafkaConfig.getAcks());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, historyKafkaConfig.getProducerBatchBytes());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, (int) historyKafkaConfig.getLinger().toMillis());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, historyKafkaConfig.getCompressionType());
+        JsonSerializer<CallHistoryEvent> valueSerializer = new JsonSerializer<CallHistoryEvent>(objectMapper)
+                .noTypeInfo();
+        SenderOptions<String, CallHistoryEvent> options = SenderOptions.<String, CallHistoryEvent>create(props)
+                .withValueSerializer(valueSerializer)
+                .stopOnError(false);
+        return new ReactiveKafkaProducerTemplate<>(options);
+    }
+
     private Map<String, Object> createProducerProperties() {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
@@ -1,10 +1,17 @@
 package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
 
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.event.CallHistoryEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.reactive.ReactiveKafkaConsumerTemplate;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
 import reactor.kafka.receiver.ReceiverOptions;
+
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
 
@@ -27,4 +34,28 @@ public class KafkaConsumerConfig {
             ReceiverOptions<String, Map<String, String>> kafkaReceiverOptions) {
         return new ReactiveKafkaConsumerTemplate<>(kafkaReceiverOptions);
     }
+
+    /**
+     * Consumidor del historial: commit manual después de cada lote escrito (commit-interval en cero
+     * desactiva el commit periódico) y un evento ilegible llega con valor null en vez de cortar el consumo.
+     */
+    @Bean
+    public ReactiveKafkaConsumerTemplate<String, CallHistoryEvent> callHistoryConsumerTemplate(
+            ObjectMapper objectMapper, HistoryKafkaConfig historyKafkaConfig) {
+        Map<String, Object> consumerProps = kafkaConfig.createConsumerProperties();
+        consumerProps.remove(JsonDeserializer.TYPE_MAPPINGS);
+        consumerProps.remove(JsonDeserializer.TRUSTED_PACKAGES);
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, historyKafkaConfig.getConsumerGroup());
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        consumerProps.remove(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG);
+        consumerProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, historyKafkaConfig.getConsumerBatchSize());
+        JsonDeserializer<CallHistoryEvent> valueDeserializer =
+                new JsonDeserializer<>(CallHistoryEvent.class, objectMapper, false);
+        ReceiverOptions<String, CallHistoryEvent> options = ReceiverOptions.<String, CallHistoryEvent>create(consumerProps)
+                .withValueDeserializer(new ErrorHandlingDeserializer<>(valueDeserializer))
+                .commitInterval(Duration.ZERO)
+                .commitBatchSize(0)
+                .subscription(Collections.singleton(kafkaConfig.getCallHistoryTopic()));
+        return new ReactiveKafkaConsumerTemplate<>(options);
+    }
 }
@@ -0,0 +1,44 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Caché L1 en memoria del proceso, delante de Redis (L2 compartido).
+ * Hits, misses y evictions se exponen como métricas cache.* (tag cache=percentage-l1).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.l1")
+public class L1CacheConfig {
+
+    private Duration ttl = Duration.ofSeconds(30);
+    private long maxSize = 1000;
+
+    @Bean
+    public Cache<String, BigDecimal> percentageL1Cache(MeterRegistry meterRegistry) {
+        return CaffeineCacheMetrics.monitor(meterRegistry, buildPercentageCache(Ticker.systemTicker()), "percentage-l1");
+    }
+
+    /**
+     * El ticker es el reloj de la expiración; los tests lo avanzan a mano para cubrir el TTL.
+     */
+    public Cache<String, BigDecimal> buildPercentageCache(Ticker ticker) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.percentage")
+public class PercentageConfig {
+
+    private FreshnessPolicy freshnessPolicy = FreshnessPolicy.ALWAYS_FRESH;
+    private Duration maxAge = Duration.ofSeconds(60);
+
+    /**
+     * Política de frescura del porcentaje.
+     * ALWAYS_FRESH: siempre se consulta primero el servicio externo (comportamiento original).
+     * STALE_WHILE_REVALIDATE: se responde con el último valor conocido y, si supera max-age, se refresca en segundo plano.
+     * MAX_AGE: se responde con el último valor conocido mientras no supere max-age; después se consulta el servicio externo.
+     */
+    public enum FreshnessPolicy {
+        ALWAYS_FRESH,
+        STALE_WHILE_REVALIDATE,
+        MAX_AGE
+    }
+}
@@ -0,0 +1,29 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.percentage.distribution")
+public class PercentageDistributionConfig {
+
+    private Mode mode = Mode.PULL;
+    private Duration pollInterval = Duration.ofSeconds(5);
+    private Duration leaseTtl = Duration.ofSeconds(15);
+    private Duration staleAfter = Duration.ofSeconds(30);
+    private String leaseKey = "percentage_leader";
+    private String channel = "percentage_updates";
+
+    /**
+     * PULL: cada nodo consulta el servicio externo (comportamiento original).
+     * PUSH: un nodo líder (lease en Redis) consulta periódicamente y publica el valor por pub/sub.
+     */
+    public enum Mode {
+        PULL,
+        PUSH
+    }
+}
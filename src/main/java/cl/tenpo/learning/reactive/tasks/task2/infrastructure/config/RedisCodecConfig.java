@@ -0,0 +1,20 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prefijos de clave que se escriben en Redis con el codec binario compacto.
+ * Las claves que no coinciden con ningún prefijo siguen usando JSON.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.codec")
+public class RedisCodecConfig {
+
+    private List<String> binaryKeyPrefixes = new ArrayList<>(List.of("percentage"));
+}
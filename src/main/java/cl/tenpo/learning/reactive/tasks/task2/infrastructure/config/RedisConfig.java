@@ -1,9 +1,11 @@
 package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
 
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.CompactValueRedisSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
@@ -12,6 +14,10 @@ import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
 
+/**
+ * Dos templates sobre la misma conexión: JSON (por defecto) y binario compacto.
+ * Ambos leen los dos formatos, así que cambiar el codec de un prefijo no invalida lo ya escrito.
+ */
 @Configuration
 @Getter
 public class RedisConfig {
@@ -20,16 +26,34 @@ public class RedisConfig {
     public static final Duration CACHE_TTL = Duration.ofMinutes(30);
     
     @Bean
+    @Primary
     public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(
             final ReactiveRedisConnectionFactory connectionFactory,
             final ObjectMapper objectMapper) {
         
+        return buildTemplate(connectionFactory, new CompactValueRedisSerializer(
+                new GenericJackson2JsonRedisSerializer(objectMapper), false));
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, Object> compactRedisTemplate(
+            final ReactiveRedisConnectionFactory connectionFactory,
+            final ObjectMapper objectMapper) {
+
+        return buildTemplate(connectionFactory, new CompactValueRedisSerializer(
+                new GenericJackson2JsonRedisSerializer(objectMapper), true));
+    }
+
+    private ReactiveRedisTemplate<String, Object> buildTemplate(
+            final ReactiveRedisConnectionFactory connectionFactory,
+            final RedisSerializer<Object> valueSerializer) {
+
         RedisSerializationContext<String, Object> context = RedisSerializationContext
                 .<String, Object>newSerializationContext()
                 .key(RedisSerializer.string())
-                .value(new GenericJackson2JsonRedisSerializer(objectMapper))
+                .value(valueSerializer)
                 .hashKey(RedisSerializer.string())
-                .hashValue(new GenericJackson2JsonRedisSerializer(objectMapper))
+                .hashValue(valueSerializer)
                 .build();
         
         return new ReactiveRedisTemplate<>(connectionFactory, context);
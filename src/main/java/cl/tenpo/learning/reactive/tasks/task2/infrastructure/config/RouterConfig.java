@@ -43,6 +43,8 @@ public class RouterConfig {
                         .GET(pingEndpoint, request -> ServerResponse.ok().bodyValue("Functional routes are working!"))
                         .POST(calculationEndpoint, calculationHandler::calculate)
                         .GET(historyEndpoint, historyHandler::getHistory)
+                        .GET(historyEndpoint + "/export", historyHandler::exportHistory)
+                        .GET(historyEndpoint + "/stats", historyHandler::getHistoryStats)
                         .GET(usersEndpoint, userHandler::getAllUsers)
                         .POST(usersEndpoint, userHandler::createUser)
                         .GET(usersEndpoint + "/{id}", userHandler::getUserById)
@@ -0,0 +1,37 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.config;
+
+import cl.tenpo.learning.reactive.tasks.task2.presentation.websocket.CalculationWebSocketHandler;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Canal WebSocket de cálculo, junto a las rutas funcionales de {@link RouterConfig}.
+ * Los mensajes se procesan en ventanas de hasta window-size elementos o window-timeout de espera.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.websocket")
+public class WebSocketConfig {
+
+    private int windowSize = 256;
+    private Duration windowTimeout = Duration.ofMillis(10);
+
+    @Value("${app.api.endpoints.calculation}")
+    private String calculationEndpoint;
+
+    @Bean
+    public HandlerMapping webSocketHandlerMapping(CalculationWebSocketHandler calculationWebSocketHandler) {
+        return new SimpleUrlHandlerMapping(
+                Map.of(calculationEndpoint + "/stream", calculationWebSocketHandler),
+                Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -0,0 +1,56 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.event;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.PayloadText;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de historial tal como viaja por Kafka. El id se asigna al publicar para que reinsertar
+ * un lote tras un fallo parcial no duplique documentos en Mongo.
+ */
+public record CallHistoryEvent(String id,
+                               LocalDateTime timestamp,
+                               String endpoint,
+                               String method,
+                               String username,
+                               String parameters,
+                               String response,
+                               String error,
+                               boolean successful,
+                               Long durationMs) {
+
+    public static CallHistoryEvent from(CallHistory history) {
+        return new CallHistoryEvent(
+                history.getId() != null ? history.getId() : new ObjectId().toHexString(),
+                history.getTimestamp(),
+                history.getEndpoint(),
+                history.getMethod(),
+                history.getUsername(),
+                textOf(history.getParameters()),
+                textOf(history.getResponse()),
+                textOf(history.getError()),
+                history.isSuccessful(),
+                history.getDurationMs());
+    }
+
+    public CallHistory toCallHistory() {
+        return CallHistory.builder()
+                .id(id)
+                .timestamp(timestamp)
+                .endpoint(endpoint)
+                .method(method)
+                .username(username)
+                .parameters(PayloadText.of(parameters))
+                .response(PayloadText.of(response))
+                .error(PayloadText.of(error))
+                .successful(successful)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    private static String textOf(PayloadText payload) {
+        return payload != null ? payload.text() : null;
+    }
+}
@@ -0,0 +1,135 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.event;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryKafkaConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryPersistenceConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.MongoBulkErrors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.kafka.core.reactive.ReactiveKafkaConsumerTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Escribe en Mongo los eventos de historial publicados en Kafka, en lotes con bulk insert UNORDERED.
+ * El offset se confirma sólo después de escribir el lote; si Mongo falla el lote se reintenta con
+ * backoff y el consumo se detiene mientras tanto, acumulando el atraso en Kafka y no en el tráfico HTTP.
+ */
+@Slf4j
+@Component
+public class CallHistoryKafkaConsumer {
+
+    private final ReactiveKafkaConsumerTemplate<String, CallHistoryEvent> consumerTemplate;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final HistoryPersistenceConfig persistenceConfig;
+    private final HistoryKafkaConfig historyKafkaConfig;
+    private final TimeoutConfig timeoutConfig;
+
+    private final Timer batchLatency;
+    private final Counter writtenRecords;
+    private final Counter skippedRecords;
+    private final Counter failedBatches;
+
+    public CallHistoryKafkaConsumer(ReactiveKafkaConsumerTemplate<String, CallHistoryEvent> consumerTemplate,
+                                    ReactiveMongoTemplate mongoTemplate,
+                                    HistoryPersistenceConfig persistenceConfig,
+                                    HistoryKafkaConfig historyKafkaConfig,
+                                    TimeoutConfig timeoutConfig,
+                                    MeterRegistry meterRegistry) {
+        this.consumerTemplate = consumerTemplate;
+        this.mongoTemplate = mongoTemplate;
+        this.persistenceConfig = persistenceConfig;
+        this.historyKafkaConfig = historyKafkaConfig;
+        this.timeoutConfig = timeoutConfig;
+        this.batchLatency = Timer.builder("history.kafka.consumer.batch")
+                .description("Duración de cada escritura en lote de eventos de historial consumidos")
+                .register(meterRegistry);
+        this.writtenRecords = meterRegistry.counter("history.kafka.consumer.records", "result", "written");
+        this.skippedRecords = meterRegistry.counter("history.kafka.consumer.records", "result", "skipped");
+        this.failedBatches = meterRegistry.counter("history.kafka.consumer.batch.failures");
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void consume() {
+        if (persistenceConfig.getMode() != HistoryPersistenceConfig.Mode.KAFKA) {
+            return;
+        }
+        log.info("Consumidor de historial activo (grupo={}, lote={}, espera={})", historyKafkaConfig.getConsumerGroup(),
+                historyKafkaConfig.getConsumerBatchSize(), historyKafkaConfig.getConsumerBatchTimeout());
+        consumerTemplate.receive()
+                .bufferTimeout(historyKafkaConfig.getConsumerBatchSize(), historyKafkaConfig.getConsumerBatchTimeout(), true)
+                .concatMap(batch -> process(batch)
+                        .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(200))
+                                .maxBackoff(historyKafkaConfig.getWriteRetryMaxBackoff())
+                                .doBeforeRetry(signal -> log.warn("Reintentando lote de historial ({} eventos): {}",
+                                        batch.size(), signal.failure().getMessage()))), 1)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Reiniciando el consumidor de historial: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    /**
+     * Escribe el lote y, si se escribió, confirma sus offsets. Los eventos ilegibles se descartan pero
+     * también se confirman para no bloquear la partición.
+     */
+    Mono<Void> process(List<ReceiverRecord<String, CallHistoryEvent>> batch) {
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        List<CallHistory> records = batch.stream()
+                .map(ReceiverRecord::value)
+                .filter(Objects::nonNull)
+                .map(CallHistoryEvent::toCallHistory)
+                .toList();
+        int skipped = batch.size() - records.size();
+        return write(records)
+                .then(Mono.defer(() -> commit(batch)))
+                .doOnSuccess(done -> {
+                    writtenRecords.increment(records.size());
+                    if (skipped > 0) {
+                        skippedRecords.increment(skipped);
+                        log.warn("Se descartaron {} eventos de historial ilegibles", skipped);
+                    }
+                });
+    }
+
+    private Mono<Void> write(List<CallHistory> records) {
+        if (records.isEmpty()) {
+            return Mono.empty();
+        }
+        long start = System.nanoTime();
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CallHistory.class)
+                .insert(records)
+                .execute()
+                .timeout(timeoutConfig.getDatabaseOperation())
+                // Un reintento tras un fallo parcial choca con los ids ya insertados: el resto sí quedó escrito
+                .onErrorResume(MongoBulkErrors::onlyDuplicateKeys, error -> Mono.empty())
+                .doOnSuccess(result -> batchLatency.record(Duration.ofNanos(System.nanoTime() - start)))
+                .doOnError(error -> {
+                    failedBatches.increment();
+                    log.error("Error escribiendo lote de historial desde Kafka ({} registros): {}",
+                            records.size(), error.getMessage());
+                })
+                .then();
+    }
+
+    private Mono<Void> commit(List<ReceiverRecord<String, CallHistoryEvent>> batch) {
+        batch.forEach(record -> record.receiverOffset().acknowledge());
+        return batch.get(batch.size() - 1).receiverOffset().commit();
+    }
+}
@@ -0,0 +1,138 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.event;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryKafkaConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryPersistenceConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.KafkaConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.kafka.sender.SenderRecord;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Publica el historial en Kafka sin que la request espere al broker: los eventos van a una cola acotada
+ * (offer no bloquea ni reintenta) que un único flujo de envío vacía al recibir un aviso o cada linger,
+ * y el productor los agrupa según batch/linger. Si la cola está llena el evento se descarta y se cuenta,
+ * igual que el overflow de la cola write-behind.
+ */
+@Slf4j
+@Component
+public class CallHistoryKafkaPublisher {
+
+    private final ReactiveKafkaProducerTemplate<String, CallHistoryEvent> producerTemplate;
+    private final KafkaConfig kafkaConfig;
+    private final HistoryPersistenceConfig persistenceConfig;
+    private final HistoryKafkaConfig historyKafkaConfig;
+    private final BlockingQueue<CallHistoryEvent> queue;
+    private final Sinks.Many<Boolean> drainRequests = Sinks.many().multicast().onBackpressureBuffer(1, false);
+    private final Sinks.One<Boolean> stopRequested = Sinks.one();
+
+    private final Counter sentEvents;
+    private final Counter failedEvents;
+    private final Counter droppedEvents;
+
+    private volatile boolean accepting = true;
+
+    public CallHistoryKafkaPublisher(ReactiveKafkaProducerTemplate<String, CallHistoryEvent> producerTemplate,
+                                     KafkaConfig kafkaConfig,
+                                     HistoryPersistenceConfig persistenceConfig,
+                                     HistoryKafkaConfig historyKafkaConfig,
+                                     MeterRegistry meterRegistry) {
+        this.producerTemplate = producerTemplate;
+        this.kafkaConfig = kafkaConfig;
+        this.persistenceConfig = persistenceConfig;
+        this.historyKafkaConfig = historyKafkaConfig;
+        this.queue = new ArrayBlockingQueue<>(historyKafkaConfig.getQueueCapacity());
+        this.sentEvents = meterRegistry.counter("history.kafka.published", "result", "sent");
+        this.failedEvents = meterRegistry.counter("history.kafka.published", "result", "failed");
+        this.droppedEvents = meterRegistry.counter("history.kafka.published", "result", "dropped");
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (persistenceConfig.getMode() != HistoryPersistenceConfig.Mode.KAFKA) {
+            return;
+        }
+        String topic = kafkaConfig.getCallHistoryTopic();
+        log.info("Historial en modo kafka, publicando en el tópico {}", topic);
+        producerTemplate.send(pendingEvents()
+                        .map(event -> SenderRecord.create(new ProducerRecord<String, CallHistoryEvent>(topic, event), event.id())))
+                .doOnNext(result -> {
+                    if (result.exception() == null) {
+                        sentEvents.increment();
+                    } else {
+                        failedEvents.increment();
+                        log.error("Error publicando historial {} en Kafka: {}",
+                                result.correlationMetadata(), result.exception().getMessage());
+                    }
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Reiniciando el envío de historial a Kafka: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    /**
+     * Entrega el registro al productor. Completa con true si quedó en el buffer y con false si se descartó.
+     */
+    public Mono<Boolean> enqueue(CallHistory history) {
+        return Mono.fromSupplier(() -> offer(CallHistoryEvent.from(history)));
+    }
+
+    /**
+     * Corre en el hilo de la request: encola sin bloquear y avisa al flujo de envío. Si el aviso falla
+     * porque otro hilo está avisando a la vez, no se reintenta: el siguiente drenaje (a más tardar en
+     * linger) se lleva también este evento.
+     */
+    private boolean offer(CallHistoryEvent event) {
+        if (!accepting || !queue.offer(event)) {
+            droppedEvents.increment();
+            return false;
+        }
+        drainRequests.tryEmitNext(true);
+        return true;
+    }
+
+    /**
+     * Único consumidor de la cola. Al pedir la detención se corta el flujo de avisos y se vacía lo que quede.
+     */
+    Flux<CallHistoryEvent> pendingEvents() {
+        return Flux.merge(Flux.interval(historyKafkaConfig.getLinger()).map(tick -> true), drainRequests.asFlux())
+                .takeUntilOther(stopRequested.asMono())
+                .onBackpressureDrop()
+                .concatMap(trigger -> drainQueue(), 1)
+                .concatWith(Flux.defer(this::drainQueue));
+    }
+
+    private Flux<CallHistoryEvent> drainQueue() {
+        List<CallHistoryEvent> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        return Flux.fromIterable(batch);
+    }
+
+    /**
+     * Completa el flujo para que lo ya encolado alcance al productor, que se vacía al cerrarse.
+     */
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        stopRequested.tryEmitValue(true);
+    }
+}
@@ -0,0 +1,20 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.event;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience.CircuitBreaker;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class CircuitBreakerStateChangedEvent extends ApplicationEvent {
+
+    private final String circuitName;
+    private final CircuitBreaker.State fromState;
+    private final CircuitBreaker.State toState;
+
+    public CircuitBreakerStateChangedEvent(String circuitName, CircuitBreaker.State fromState, CircuitBreaker.State toState) {
+        super(circuitName);
+        this.circuitName = circuitName;
+        this.fromState = fromState;
+        this.toState = toState;
+    }
+}
@@ -0,0 +1,15 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class CircuitBreakerStateChangedListener {
+
+    @EventListener
+    public void handleStateChanged(CircuitBreakerStateChangedEvent event) {
+        log.warn("⚡ CIRCUIT BREAKER [{}]: {} -> {}", event.getCircuitName(), event.getFromState(), event.getToState());
+    }
+}
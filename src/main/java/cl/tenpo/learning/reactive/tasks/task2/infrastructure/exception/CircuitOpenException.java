@@ -0,0 +1,8 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception;
+
+public class CircuitOpenException extends ServiceUnavailableException {
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception;
+
+public class ConcurrencyLimitExceededException extends ServiceUnavailableException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
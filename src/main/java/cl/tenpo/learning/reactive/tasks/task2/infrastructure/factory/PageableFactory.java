@@ -19,6 +19,10 @@ public class PageableFactory {
         return PageRequest.of(validatedPage, validatedSize);
     }
     
+    public int pageSize(Integer size) {
+        return validateAndGetSize(size);
+    }
+    
     private int validateAndGetPage(Integer page) {
         if (page == null || page < 0) {
             return paginationConfig.getDefaultPage();
@@ -36,6 +36,10 @@ public class ResponseFactory {
         return ServerResponse.badRequest().bodyValue(error.getMessage());
     }
     
+    public Mono<ServerResponse> unauthorized(Throwable error) {
+        return ServerResponse.status(HttpStatus.UNAUTHORIZED).bodyValue(error.getMessage());
+    }
+    
     public Mono<ServerResponse> error(String message) {
         return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).bodyValue(message);
     }
@@ -0,0 +1,88 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.filter;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Acumula un prefijo acotado de un body a medida que sus DataBuffer pasan, sin consumirlos
+ * ni mover su posición de lectura. El texto se decodifica sólo cuando se pide y el arreglo
+ * vuelve al pool con {@link #release()}.
+ */
+public class BodyCaptureBuffer {
+
+    private final BodyCaptureBufferPool pool;
+    private final int limit;
+    private byte[] bytes;
+    private int length;
+    private long totalBytes;
+    private String text;
+    private boolean released;
+
+    BodyCaptureBuffer(BodyCaptureBufferPool pool, int limit) {
+        this.pool = pool;
+        this.limit = limit;
+    }
+
+    public synchronized void append(DataBuffer dataBuffer) {
+        int readable = dataBuffer.readableByteCount();
+        totalBytes += readable;
+        int room = limit - length;
+        if (released || readable == 0 || room <= 0) {
+            return;
+        }
+        if (bytes == null) {
+            bytes = pool.acquire();
+        }
+        try (DataBuffer.ByteBufferIterator iterator = dataBuffer.readableByteBuffers()) {
+            while (iterator.hasNext() && room > 0) {
+                ByteBuffer view = iterator.next();
+                int count = Math.min(room, view.remaining());
+                view.get(bytes, length, count);
+                length += count;
+                room -= count;
+            }
+        }
+    }
+
+    public synchronized String text() {
+        if (text == null) {
+            boolean truncated = totalBytes > length;
+            int decoded = truncated ? completeCodePoints(bytes, length) : length;
+            text = bytes == null ? "" : new String(bytes, 0, decoded, StandardCharsets.UTF_8);
+            if (truncated) {
+                text = text + "... [truncado, " + totalBytes + " bytes]";
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Largo hasta el último carácter UTF-8 completo: el corte por bytes puede dejar un carácter
+     * multibyte a medias, que se decodificaría como U+FFFD.
+     */
+    static int completeCodePoints(byte[] bytes, int length) {
+        int start = length;
+        while (start > 0 && length - start < 3 && (bytes[start - 1] & 0xC0) == 0x80) {
+            start--;
+        }
+        if (start == 0) {
+            return length;
+        }
+        int lead = bytes[start - 1] & 0xFF;
+        int expected = lead < 0x80 ? 1 : (lead & 0xE0) == 0xC0 ? 2 : (lead & 0xF0) == 0xE0 ? 3 : (lead & 0xF8) == 0xF0 ? 4 : 1;
+        return length - (start - 1) < expected ? start - 1 : length;
+    }
+
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        if (bytes != null) {
+            pool.release(bytes);
+            bytes = null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.filter;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.BodyCaptureConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool de arreglos de max-bytes para capturar bodies sin asignar memoria por request.
+ * Si el pool está vacío se crea un arreglo nuevo; si está lleno el devuelto se descarta.
+ */
+@Component
+public class BodyCaptureBufferPool {
+
+    private final int maxBytes;
+    private final BlockingQueue<byte[]> free;
+
+    public BodyCaptureBufferPool(BodyCaptureConfig config) {
+        this.maxBytes = config.getMaxBytes();
+        this.free = new ArrayBlockingQueue<>(Math.max(1, config.getPoolSize()));
+    }
+
+    public BodyCaptureBuffer newBuffer() {
+        return new BodyCaptureBuffer(this, maxBytes);
+    }
+
+    /**
+     * Buffer con un límite menor al del pool (por ejemplo el max-body-bytes de una regla).
+     */
+    public BodyCaptureBuffer newBuffer(int limit) {
+        return new BodyCaptureBuffer(this, Math.max(0, Math.min(limit, maxBytes)));
+    }
+
+    byte[] acquire() {
+        byte[] array = free.poll();
+        return array != null ? array : new byte[maxBytes];
+    }
+
+    void release(byte[] array) {
+        free.offer(array);
+    }
+}
@@ -0,0 +1,196 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.filter;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.BodyCaptureConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryCapturePolicyConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Tabla compilada de reglas de muestreo/captura del historial.
+ * Los patrones se parsean una sola vez; {@link #update(List)} compila la tabla nueva completa
+ * y la publica de forma atómica, así un cambio de reglas aplica sin reiniciar.
+ */
+@Slf4j
+@Component
+public class HistoryCapturePolicy {
+
+    private static final int STATUS_CLASSES = 6;
+
+    private final int maxCaptureBytes;
+    private final CompiledRule defaultRule;
+    private final RequestPolicy recordAll;
+    private final AtomicReference<Table> table = new AtomicReference<>();
+
+    public HistoryCapturePolicy(HistoryCapturePolicyConfig config, BodyCaptureConfig captureConfig) {
+        this.maxCaptureBytes = captureConfig.getMaxBytes();
+        this.defaultRule = new CompiledRule(null, Set.of(), 0, 1.0, true, maxCaptureBytes);
+        this.recordAll = new RequestPolicy(filled(new CompiledRule[STATUS_CLASSES], defaultRule));
+        update(config.getRules());
+    }
+
+    /**
+     * Reemplaza las reglas vigentes. Si alguna es inválida se lanza IllegalArgumentException
+     * y la tabla anterior sigue activa.
+     */
+    public void update(List<HistoryCapturePolicyConfig.Rule> rules) {
+        List<CompiledRule> compiled = rules.stream().map(this::compile).toList();
+        table.set(new Table(List.copyOf(rules), compiled));
+        log.info("Política de historial actualizada con {} reglas", compiled.size());
+    }
+
+    public List<HistoryCapturePolicyConfig.Rule> currentRules() {
+        return table.get().source();
+    }
+
+    /**
+     * Resuelve, para cada clase de estado, la primera regla que aplica a la request.
+     * El estado aún no se conoce al entrar al filtro, por eso se decide con {@link RequestPolicy#shouldRecord(int)}.
+     */
+    public RequestPolicy resolve(PathContainer path, HttpMethod method) {
+        CompiledRule[] byStatusClass = null;
+        int pending = STATUS_CLASSES - 1;
+        for (CompiledRule rule : table.get().rules()) {
+            if (!rule.matches(path, method)) {
+                continue;
+            }
+            if (byStatusClass == null) {
+                byStatusClass = new CompiledRule[STATUS_CLASSES];
+            }
+            for (int statusClass = 1; statusClass < STATUS_CLASSES; statusClass++) {
+                if (byStatusClass[statusClass] == null && rule.appliesTo(statusClass)) {
+                    byStatusClass[statusClass] = rule;
+                    pending--;
+                }
+            }
+            if (pending == 0) {
+                break;
+            }
+        }
+        return byStatusClass == null ? recordAll : new RequestPolicy(filled(byStatusClass, defaultRule));
+    }
+
+    private CompiledRule compile(HistoryCapturePolicyConfig.Rule rule) {
+        if (rule.getPath() == null || rule.getPath().isBlank()) {
+            throw new IllegalArgumentException("Regla de historial sin path");
+        }
+        if (rule.getSampleRate() < 0 || rule.getSampleRate() > 1) {
+            throw new IllegalArgumentException("sample-rate debe estar entre 0 y 1: " + rule.getSampleRate());
+        }
+        PathPattern pattern = PathPatternParser.defaultInstance.parse(rule.getPath());
+        Set<HttpMethod> methods = rule.getMethods() == null ? Set.of() : rule.getMethods().stream()
+                .map(method -> HttpMethod.valueOf(method.trim().toUpperCase(Locale.ROOT)))
+                .collect(Collectors.toUnmodifiableSet());
+        int statusMask = 0;
+        if (rule.getStatuses() != null) {
+            for (String status : rule.getStatuses()) {
+                statusMask |= 1 << parseStatusClass(status);
+            }
+        }
+        int maxBodyBytes = rule.getMaxBodyBytes() == null
+                ? maxCaptureBytes
+                : Math.max(0, Math.min(rule.getMaxBodyBytes(), maxCaptureBytes));
+        return new CompiledRule(pattern, methods, statusMask, rule.getSampleRate(), rule.isCaptureBodies(), maxBodyBytes);
+    }
+
+    private static int parseStatusClass(String status) {
+        String value = status.trim().toLowerCase(Locale.ROOT);
+        if (value.length() == 3 && value.endsWith("xx") && value.charAt(0) >= '1' && value.charAt(0) <= '5') {
+            return value.charAt(0) - '0';
+        }
+        throw new IllegalArgumentException("Clase de estado inválida: " + status + " (se espera 1xx..5xx)");
+    }
+
+    private static CompiledRule[] filled(CompiledRule[] byStatusClass, CompiledRule fallback) {
+        for (int statusClass = 1; statusClass < STATUS_CLASSES; statusClass++) {
+            if (byStatusClass[statusClass] == null) {
+                byStatusClass[statusClass] = fallback;
+            }
+        }
+        return byStatusClass;
+    }
+
+    private record Table(List<HistoryCapturePolicyConfig.Rule> source, List<CompiledRule> rules) {
+    }
+
+    record CompiledRule(PathPattern pattern, Set<HttpMethod> methods, int statusMask,
+                        double sampleRate, boolean captureBodies, int maxBodyBytes) {
+
+        boolean matches(PathContainer path, HttpMethod method) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+
+        boolean appliesTo(int statusClass) {
+            return statusMask == 0 || (statusMask & (1 << statusClass)) != 0;
+        }
+    }
+
+    /**
+     * Decisión para una request concreta: qué regla aplica según la clase de estado de la respuesta.
+     */
+    public static final class RequestPolicy {
+
+        private final CompiledRule[] byStatusClass;
+        private final boolean skipped;
+        private final boolean captureBodies;
+        private final int maxBodyBytes;
+
+        private RequestPolicy(CompiledRule[] byStatusClass) {
+            this.byStatusClass = byStatusClass;
+            boolean anyRecorded = false;
+            boolean anyCapture = false;
+            int maxBytes = 0;
+            for (int statusClass = 1; statusClass < STATUS_CLASSES; statusClass++) {
+                CompiledRule rule = byStatusClass[statusClass];
+                if (rule.sampleRate() > 0) {
+                    anyRecorded = true;
+                    if (rule.captureBodies()) {
+                        anyCapture = true;
+                        maxBytes = Math.max(maxBytes, rule.maxBodyBytes());
+                    }
+                }
+            }
+            this.skipped = !anyRecorded;
+            this.captureBodies = anyCapture;
+            this.maxBodyBytes = maxBytes;
+        }
+
+        /** Ninguna clase de estado se registra: la request pasa sin decorar */
+        public boolean isSkipped() {
+            return skipped;
+        }
+
+        public boolean captureBodies() {
+            return captureBodies;
+        }
+
+        public int maxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public boolean shouldRecord(int statusCode) {
+            double sampleRate = ruleFor(statusCode).sampleRate();
+            return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        }
+
+        /** Si la regla ganadora no captura bodies el registro se guarda sin ellos */
+        public boolean captureBodies(int statusCode) {
+            return ruleFor(statusCode).captureBodies();
+        }
+
+        private CompiledRule ruleFor(int statusCode) {
+            int statusClass = statusCode / 100;
+            return byStatusClass[statusClass >= 1 && statusClass < STATUS_CLASSES ? statusClass : 5];
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package cl.tenpo.learning.reactive.tasks.task2.infrastructure.filter;
 
 import cl.tenpo.learning.reactive.tasks.task2.application.port.CallHistoryService;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryCallerConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.stats.HistoryStatsAggregator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -9,12 +11,14 @@ import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
 import reactor.core.publisher.Mono;
-import java.util.Arrays;
-import java.util.List;
+
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -22,10 +26,14 @@ import java.util.List;
 @RequiredArgsConstructor
 public class RequestLoggingFilter implements WebFilter {
 
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
     private final CallHistoryService callHistoryService;
     private final ObjectMapper objectMapper;
-    
-    private final List<String> excludedPaths = Arrays.asList("/actuator", "/swagger", "/v3/api-docs");
+    private final BodyCaptureBufferPool captureBufferPool;
+    private final HistoryCapturePolicy capturePolicy;
+    private final HistoryStatsAggregator statsAggregator;
+    private final HistoryCallerConfig callerConfig;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
@@ -33,36 +41,71 @@ public class RequestLoggingFilter implements WebFilter {
         String path = request.getPath().value();
         String method = request.getMethod().name();
         
-        if (isExcludedPath(path)) {
+        HistoryCapturePolicy.RequestPolicy policy = capturePolicy.resolve(
+                request.getPath().pathWithinApplication(), request.getMethod());
+        if (policy.isSkipped()) {
             return chain.filter(exchange);
         }
         log.info("Incoming request: {} {}", method, path);
-        ResponseCaptureExchange responseCapture = new ResponseCaptureExchange(exchange);
+        ResponseCaptureExchange responseCapture = policy.captureBodies()
+                ? new ResponseCaptureExchange(exchange, captureBufferPool, policy.maxBodyBytes())
+                : null;
+        ServerWebExchange target = responseCapture != null ? responseCapture : exchange;
+        long start = System.nanoTime();
         
-        return chain.filter(responseCapture)
+        return chain.filter(target)
                 .then(Mono.defer(() -> {
-                    int statusCode = responseCapture.getResponse().getStatusCode() != null 
-                        ? responseCapture.getResponse().getStatusCode().value() 
+                    long durationNanos = System.nanoTime() - start;
+                    int statusCode = target.getResponse().getStatusCode() != null 
+                        ? target.getResponse().getStatusCode().value() 
                         : 200;
-                    
-                    String responseBody = responseCapture.getResponseBody();
-                    String requestBody = responseCapture.getRequestBody();
                     log.info("Response status: {} for {} {}", statusCode, method, path);
+                    // Las estadísticas cuentan todas las llamadas, también las que el muestreo no guarda
+                    statsAggregator.record(routeOf(target), method, isSuccessful(statusCode), durationNanos);
+                    if (!policy.shouldRecord(statusCode)) {
+                        return Mono.empty();
+                    }
                     
-                    return recordRequest(path, method, requestBody, responseBody, statusCode);
-                }));
+                    boolean withBodies = responseCapture != null && policy.captureBodies(statusCode);
+                    String responseBody = withBodies ? responseCapture.getResponseBody() : "";
+                    String requestBody = withBodies ? responseCapture.getRequestBody() : "";
+                    
+                    return recordRequest(path, method, usernameOf(request), requestBody, responseBody, statusCode,
+                            TimeUnit.NANOSECONDS.toMillis(durationNanos));
+                }))
+                .doFinally(signal -> {
+                    if (responseCapture != null) {
+                        responseCapture.release();
+                    }
+                });
     }
 
-    private boolean isExcludedPath(String path) {
-        return excludedPaths.stream().anyMatch(path::startsWith);
+    /**
+     * Patrón de la ruta que atendió la request (por ejemplo /users/{id}), para no abrir una serie por cada id.
+     */
+    private String routeOf(ServerWebExchange exchange) {
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.getPatternString() : UNMATCHED_ROUTE;
     }
-    
+
+    private String usernameOf(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(callerConfig.getUsernameHeader());
+        return header != null && !header.isBlank() ? header : request.getQueryParams().getFirst("username");
+    }
+
+    private static boolean isSuccessful(int statusCode) {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
     @SneakyThrows
-    private Mono<Void> recordRequest(String endpoint, String method, String parameters, String response, int statusCode) {
+    private Mono<Void> recordRequest(String endpoint, String method, String username, String parameters, String response,
+                                     int statusCode, long durationMs) {
         return Mono.just(statusCode)
-                .filter(status -> status >= 200 && status < 300)
-                .flatMap(status -> callHistoryService.recordSuccessfulRequest(endpoint, method, parameters, response))
-                .switchIfEmpty(callHistoryService.recordFailedRequest(endpoint, method, parameters, response))
+                .filter(RequestLoggingFilter::isSuccessful)
+                .flatMap(status -> callHistoryService.recordSuccessfulRequest(endpoint, method, username, parameters,
+                        response, durationMs))
+                .switchIfEmpty(callHistoryService.recordFailedRequest(endpoint, method, username, parameters,
+                        response, durationMs))
                 .then();
     }
 }
@@ -11,18 +11,31 @@ import org.springframework.web.server.ServerWebExchangeDecorator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-import java.util.concurrent.atomic.AtomicReference;
-
+/**
+ * Intercambio que captura un prefijo acotado de los bodies de request y response.
+ * Los buffers pasan sin copiarse ni re-envolverse; hay que llamar a {@link #release()} al terminar.
+ */
 public class ResponseCaptureExchange extends ServerWebExchangeDecorator {
     
-    private final CaptureRequestDecorator requestDecorator;
+    private final BodyCaptureBuffer requestCapture;
+    private final BodyCaptureBuffer responseCapture;
+    private final RequestBodyCaptureDecorator requestDecorator;
     private final CaptureResponseDecorator responseDecorator;
     
-    public ResponseCaptureExchange(@NonNull ServerWebExchange delegate) {
+    public ResponseCaptureExchange(@NonNull ServerWebExchange delegate, BodyCaptureBufferPool bufferPool) {
+        this(delegate, bufferPool.newBuffer(), bufferPool.newBuffer());
+    }
+
+    public ResponseCaptureExchange(@NonNull ServerWebExchange delegate, BodyCaptureBufferPool bufferPool, int maxBodyBytes) {
+        this(delegate, bufferPool.newBuffer(maxBodyBytes), bufferPool.newBuffer(maxBodyBytes));
+    }
+
+    private ResponseCaptureExchange(ServerWebExchange delegate, BodyCaptureBuffer requestCapture, BodyCaptureBuffer responseCapture) {
         super(delegate);
-        this.requestDecorator = new CaptureRequestDecorator(delegate.getRequest());
-        this.responseDecorator = new CaptureResponseDecorator(delegate.getResponse());
+        this.requestCapture = requestCapture;
+        this.responseCapture = responseCapture;
+        this.requestDecorator = new RequestBodyCaptureDecorator(delegate.getRequest(), requestCapture);
+        this.responseDecorator = new CaptureResponseDecorator(delegate.getResponse(), responseCapture);
     }
     
     @Override
@@ -38,51 +51,42 @@ public class ResponseCaptureExchange extends ServerWebExchangeDecorator {
     }
     
     public String getRequestBody() {
-        return requestDecorator.getBodyContent();
+        return requestCapture.text();
     }
     
     public String getResponseBody() {
-        return responseDecorator.getBodyContent();
+        return responseCapture.text();
     }
     
     public int getStatusCode() {
         return responseDecorator.getRawStatusCode();
     }
-    
-    private static class CaptureRequestDecorator extends RequestBodyCaptureDecorator {
-        public CaptureRequestDecorator(@NonNull ServerHttpRequest delegate) {
-            super(delegate);
-        }
+
+    public void release() {
+        requestCapture.release();
+        responseCapture.release();
     }
     
     private static class CaptureResponseDecorator extends ServerHttpResponseDecorator {
-        private final AtomicReference<String> bodyRef = new AtomicReference<>("");
+
+        private final BodyCaptureBuffer capture;
         
-        public CaptureResponseDecorator(@NonNull ServerHttpResponse delegate) {
+        public CaptureResponseDecorator(@NonNull ServerHttpResponse delegate, BodyCaptureBuffer capture) {
             super(delegate);
+            this.capture = capture;
         }
         
         @Override
         @NonNull
         public Mono<Void> writeWith(@NonNull Publisher<? extends DataBuffer> body) {
-            if (body instanceof Flux) {
-                Flux<? extends DataBuffer> fluxBody = (Flux<? extends DataBuffer>) body;
-                
-                return super.writeWith(fluxBody.map(dataBuffer -> {
-                    byte[] content = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(content);
-                    
-                    String bodyContent = new String(content, StandardCharsets.UTF_8);
-                    bodyRef.set(bodyContent);
-                    
-                    return this.bufferFactory().wrap(content);
-                }));
-            }
-            return super.writeWith(body);
+            return super.writeWith(Flux.from(body).doOnNext(capture::append));
         }
-        
-        public String getBodyContent() {
-            return bodyRef.get();
+
+        @Override
+        @NonNull
+        public Mono<Void> writeAndFlushWith(@NonNull Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body)
+                    .map(chunk -> Flux.from(chunk).doOnNext(capture::append)));
         }
     }
 }
@@ -7,6 +7,6 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 
 @Repository
-public interface CallHistoryRepository extends ReactiveMongoRepository<CallHistory, String> {
+public interface CallHistoryRepository extends ReactiveMongoRepository<CallHistory, String>, CallHistoryRepositoryCustom {
     Flux<CallHistory> findAllBy(Pageable pageable);
 }
@@ -0,0 +1,24 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryCursor;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryFilter;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+public interface CallHistoryRepositoryCustom {
+
+    /**
+     * Registros que cumplen el filtro, estrictamente posteriores al cursor en orden (timestamp DESC, id DESC);
+     * sin cursor devuelve el comienzo. Cada forma de filtro tiene un índice que termina en (timestamp, _id),
+     * ver {@link CallHistoryStorageInitializer}, así ninguna página recorre la colección ni usa skip.
+     */
+    Flux<CallHistory> findPageAfter(HistoryFilter filter, HistoryCursor cursor, int limit);
+
+    /**
+     * Registros con timestamp en [from, to) en orden cronológico, leídos desde un cursor
+     * con lotes de batchSize; el siguiente lote se pide sólo cuando hay demanda.
+     */
+    Flux<CallHistory> streamRange(LocalDateTime from, LocalDateTime to, int batchSize);
+}
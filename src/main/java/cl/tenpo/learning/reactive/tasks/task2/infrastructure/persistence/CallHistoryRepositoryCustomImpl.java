@@ -0,0 +1,69 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryCursor;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryFilter;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class CallHistoryRepositoryCustomImpl implements CallHistoryRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<CallHistory> findPageAfter(HistoryFilter filter, HistoryCursor cursor, int limit) {
+        return mongoTemplate.find(pageQuery(filter, cursor, limit), CallHistory.class);
+    }
+
+    static Query pageQuery(HistoryFilter filter, HistoryCursor cursor, int limit) {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.DESC, "timestamp", "_id"))
+                .limit(limit);
+        if (filter.endpoint() != null) {
+            query.addCriteria(Criteria.where("endpoint").is(filter.endpoint()));
+        }
+        if (filter.method() != null) {
+            query.addCriteria(Criteria.where("method").is(filter.method()));
+        }
+        if (filter.successful() != null) {
+            query.addCriteria(Criteria.where("successful").is(filter.successful()));
+        }
+        if (filter.username() != null) {
+            query.addCriteria(Criteria.where("username").is(filter.username()));
+        }
+        if (filter.from() != null || filter.to() != null) {
+            Criteria range = Criteria.where("timestamp");
+            if (filter.from() != null) {
+                range.gte(filter.from());
+            }
+            if (filter.to() != null) {
+                range.lt(filter.to());
+            }
+            query.addCriteria(range);
+        }
+        if (cursor != null) {
+            Object id = ObjectId.isValid(cursor.id()) ? new ObjectId(cursor.id()) : cursor.id();
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("timestamp").lt(cursor.timestamp()),
+                    Criteria.where("timestamp").is(cursor.timestamp()).and("_id").lt(id)));
+        }
+        return query;
+    }
+
+    @Override
+    public Flux<CallHistory> streamRange(LocalDateTime from, LocalDateTime to, int batchSize) {
+        Query query = new Query(Criteria.where("timestamp").gte(from).lt(to))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp", "_id"))
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.find(query, CallHistory.class)
+                .limitRate(batchSize);
+    }
+}
@@ -0,0 +1,138 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryStorageConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Prepara la colección del historial antes de recibir tráfico: la crea con el layout configurado
+ * (una inserción previa crearía una colección normal), aplica la retención TTL y crea el índice
+ * (timestamp, _id) que usan la paginación por cursor y la exportación, más los índices de las consultas
+ * filtradas. Éstos siguen el orden igualdad, orden, rango: los campos filtrados por igualdad primero y
+ * luego (timestamp, _id), que resuelve tanto el orden de la página como el rango from/to.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CallHistoryStorageInitializer {
+
+    static final String CURSOR_INDEX = "timestamp_id_desc";
+    static final String TTL_INDEX = "timestamp_ttl";
+    static final String ENDPOINT_INDEX = "endpoint_timestamp_id";
+    static final String ENDPOINT_OUTCOME_INDEX = "endpoint_successful_timestamp_id";
+    static final String ENDPOINT_METHOD_INDEX = "endpoint_method_timestamp_id";
+    static final String METHOD_INDEX = "method_timestamp_id";
+    static final String OUTCOME_INDEX = "successful_timestamp_id";
+    static final String USERNAME_INDEX = "username_timestamp_id";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final HistoryStorageConfig storageConfig;
+    private final TimeoutConfig timeoutConfig;
+
+    @PostConstruct
+    public void initialize() {
+        String collection = storageConfig.getCollectionName();
+        prepareCollection(collection)
+                .then(ensureCursorIndex(collection))
+                .then(ensureQueryIndexes(collection))
+                .then(storageConfig.getLayout() == HistoryStorageConfig.Layout.STANDARD && storageConfig.hasRetention()
+                        ? ensureTtlIndex(collection)
+                        : Mono.empty())
+                .doOnSuccess(v -> log.info("Colección de historial {} lista (layout={}, retención={})",
+                        collection, storageConfig.getLayout(), storageConfig.getRetention()))
+                .doOnError(e -> log.error("Error preparando la colección de historial {}: {}", collection, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .block(timeoutConfig.getDatabaseOperation());
+    }
+
+    private Mono<Void> prepareCollection(String collection) {
+        if (storageConfig.getLayout() != HistoryStorageConfig.Layout.TIME_SERIES) {
+            return Mono.empty();
+        }
+        return mongoTemplate.collectionExists(collection)
+                .flatMap(exists -> exists ? updateTimeSeriesExpiry(collection) : createTimeSeries(collection));
+    }
+
+    private Mono<Void> createTimeSeries(String collection) {
+        CollectionOptions options = CollectionOptions.empty()
+                .timeSeries(CollectionOptions.TimeSeriesOptions.timeSeries("timestamp")
+                        .metaField("endpoint")
+                        .granularity(storageConfig.getGranularity()));
+        if (storageConfig.hasRetention()) {
+            options = options.expire(storageConfig.getRetention());
+        }
+        return mongoTemplate.createCollection(collection, options)
+                .doOnSuccess(created -> log.info("Colección time-series {} creada", collection))
+                .then();
+    }
+
+    /**
+     * En time-series la retención es una opción de la colección: se ajusta con collMod si cambió la configuración.
+     */
+    private Mono<Void> updateTimeSeriesExpiry(String collection) {
+        Object expireAfterSeconds = storageConfig.hasRetention() ? storageConfig.getRetention().toSeconds() : "off";
+        return mongoTemplate.executeCommand(new Document("collMod", collection)
+                        .append("expireAfterSeconds", expireAfterSeconds))
+                .then();
+    }
+
+    private Mono<Void> ensureCursorIndex(String collection) {
+        return mongoTemplate.indexOps(collection)
+                .ensureIndex(new Index()
+                        .on("timestamp", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC)
+                        .named(CURSOR_INDEX))
+                .then();
+    }
+
+    private Mono<Void> ensureQueryIndexes(String collection) {
+        return Flux.fromIterable(queryIndexes())
+                .concatMap(index -> mongoTemplate.indexOps(collection).ensureIndex(index))
+                .then();
+    }
+
+    static List<Index> queryIndexes() {
+        return List.of(
+                byTimestamp(new Index().on("endpoint", Sort.Direction.ASC)).named(ENDPOINT_INDEX),
+                byTimestamp(new Index().on("endpoint", Sort.Direction.ASC).on("successful", Sort.Direction.ASC))
+                        .named(ENDPOINT_OUTCOME_INDEX),
+                byTimestamp(new Index().on("endpoint", Sort.Direction.ASC).on("method", Sort.Direction.ASC))
+                        .named(ENDPOINT_METHOD_INDEX),
+                byTimestamp(new Index().on("method", Sort.Direction.ASC)).named(METHOD_INDEX),
+                byTimestamp(new Index().on("successful", Sort.Direction.ASC)).named(OUTCOME_INDEX),
+                byTimestamp(new Index().on("username", Sort.Direction.ASC)).named(USERNAME_INDEX));
+    }
+
+    private static Index byTimestamp(Index index) {
+        return index.on("timestamp", Sort.Direction.DESC).on("_id", Sort.Direction.DESC);
+    }
+
+    /**
+     * Si el índice TTL ya existe con otra expiración, ensureIndex falla y se actualiza con collMod.
+     */
+    private Mono<Void> ensureTtlIndex(String collection) {
+        long expireAfterSeconds = storageConfig.getRetention().toSeconds();
+        return mongoTemplate.indexOps(collection)
+                .ensureIndex(new Index()
+                        .on("timestamp", Sort.Direction.ASC)
+                        .expire(expireAfterSeconds)
+                        .named(TTL_INDEX))
+                .onErrorResume(e -> mongoTemplate.executeCommand(new Document("collMod", collection)
+                                .append("index", new Document("name", TTL_INDEX)
+                                        .append("expireAfterSeconds", expireAfterSeconds)))
+                        .thenReturn(TTL_INDEX))
+                .then();
+    }
+}
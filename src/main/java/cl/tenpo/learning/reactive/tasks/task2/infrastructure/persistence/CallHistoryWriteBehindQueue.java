@@ -0,0 +1,234 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryPersistenceConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal.HistoryWriteAheadLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cola write-behind del historial: los registros se encolan en memoria y se escriben en MongoDB
+ * en lotes con bulk insert UNORDERED, disparados por tamaño de lote o por intervalo.
+ * La respuesta HTTP ya no espera a Mongo; ante cola llena se aplica la política de overflow.
+ * Un lote que Mongo rechaza se deriva al WAL local en vez de perderse.
+ */
+@Slf4j
+@Component
+public class CallHistoryWriteBehindQueue {
+
+    private static final Duration BLOCK_POLL_INTERVAL = Duration.ofMillis(5);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final HistoryPersistenceConfig config;
+    private final TimeoutConfig timeoutConfig;
+    private final HistoryWriteAheadLog writeAheadLog;
+    private final BlockingQueue<CallHistory> queue;
+    private final Sinks.Many<Boolean> flushRequests = Sinks.many().multicast().onBackpressureBuffer(1, false);
+    private final Sinks.One<Boolean> stopRequested = Sinks.one();
+
+    private final Timer flushLatency;
+    private final Counter writtenRecords;
+    private final Counter failedRecords;
+    private final Counter droppedOnOverflow;
+    private final Counter droppedBySampling;
+    private final Counter droppedOnShutdown;
+
+    private volatile boolean accepting = true;
+    private Mono<Void> flushLoop;
+    private Disposable flushSubscription;
+
+    public CallHistoryWriteBehindQueue(ReactiveMongoTemplate mongoTemplate,
+                                       HistoryPersistenceConfig config,
+                                       TimeoutConfig timeoutConfig,
+                                       HistoryWriteAheadLog writeAheadLog,
+                                       MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.config = config;
+        this.timeoutConfig = timeoutConfig;
+        this.writeAheadLog = writeAheadLog;
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.flushLatency = Timer.builder("history.writebehind.flush")
+                .description("Duración de cada escritura en lote del historial")
+                .register(meterRegistry);
+        this.writtenRecords = meterRegistry.counter("history.writebehind.records", "result", "written");
+        this.failedRecords = meterRegistry.counter("history.writebehind.records", "result", "failed");
+        this.droppedOnOverflow = meterRegistry.counter("history.writebehind.dropped", "reason", "overflow");
+        this.droppedBySampling = meterRegistry.counter("history.writebehind.dropped", "reason", "sampled");
+        this.droppedOnShutdown = meterRegistry.counter("history.writebehind.dropped", "reason", "shutdown");
+        Gauge.builder("history.writebehind.queue.depth", queue, BlockingQueue::size)
+                .description("Registros de historial pendientes de escritura")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (config.getMode() != HistoryPersistenceConfig.Mode.WRITE_BEHIND) {
+            return;
+        }
+        log.info("Historial en modo write-behind (lote={}, intervalo={}, overflow={})",
+                config.getBatchSize(), config.getFlushInterval(), config.getOverflowPolicy());
+        // Al pedir la detención se cortan los disparadores, pero concatMap deja terminar el lote en curso
+        flushLoop = Flux.merge(Flux.interval(config.getFlushInterval()).map(tick -> true),
+                        flushRequests.asFlux())
+                .takeUntilOther(stopRequested.asMono())
+                .onBackpressureDrop()
+                .concatMap(trigger -> drain(), 1)
+                .then()
+                .cache();
+        flushSubscription = flushLoop.subscribe();
+    }
+
+    /**
+     * Encola un registro. Completa con true si quedó encolado y con false si la política lo descartó.
+     */
+    public Mono<Boolean> enqueue(CallHistory history) {
+        if (!accepting) {
+            return Mono.fromSupplier(() -> {
+                droppedOnShutdown.increment();
+                return false;
+            });
+        }
+        return switch (config.getOverflowPolicy()) {
+            case DROP -> Mono.fromSupplier(() -> offer(history));
+            case SAMPLE -> Mono.fromSupplier(() -> offerSampled(history));
+            case BLOCK -> offerWaiting(history);
+        };
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private boolean offer(CallHistory history) {
+        if (!queue.offer(history)) {
+            droppedOnOverflow.increment();
+            return false;
+        }
+        if (queue.size() >= config.getBatchSize()) {
+            flushRequests.tryEmitNext(true);
+        }
+        return true;
+    }
+
+    private boolean offerSampled(CallHistory history) {
+        double occupancy = (double) queue.size() / config.getQueueCapacity();
+        if (occupancy >= config.getSampleThreshold()
+                && ThreadLocalRandom.current().nextDouble() >= config.getSampleRate()) {
+            droppedBySampling.increment();
+            return false;
+        }
+        return offer(history);
+    }
+
+    private Mono<Boolean> offerWaiting(CallHistory history) {
+        return Mono.fromSupplier(() -> queue.offer(history))
+                .filter(Boolean::booleanValue)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(BLOCK_POLL_INTERVAL))
+                .timeout(config.getBlockTimeout(), Mono.fromSupplier(() -> {
+                    droppedOnOverflow.increment();
+                    return false;
+                }))
+                .doOnNext(enqueued -> {
+                    if (enqueued && queue.size() >= config.getBatchSize()) {
+                        flushRequests.tryEmitNext(true);
+                    }
+                });
+    }
+
+    /**
+     * Vacía la cola en lotes de batch-size hasta dejarla vacía.
+     */
+    private Mono<Void> drain() {
+        return Flux.defer(() -> Flux.fromIterable(nextBatches()))
+                .concatMap(this::writeBatch)
+                .then();
+    }
+
+    private List<List<CallHistory>> nextBatches() {
+        List<List<CallHistory>> batches = new ArrayList<>();
+        int pending = queue.size();
+        while (pending > 0) {
+            List<CallHistory> batch = new ArrayList<>(Math.min(pending, config.getBatchSize()));
+            queue.drainTo(batch, config.getBatchSize());
+            if (batch.isEmpty()) {
+                break;
+            }
+            batches.add(batch);
+            pending -= batch.size();
+        }
+        return batches;
+    }
+
+    private Mono<Void> writeBatch(List<CallHistory> batch) {
+        if (writeAheadLog.shouldAbsorb()) {
+            return absorb(batch);
+        }
+        long start = System.nanoTime();
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CallHistory.class)
+                .insert(batch)
+                .execute()
+                .timeout(timeoutConfig.getDatabaseOperation())
+                .doOnNext(result -> {
+                    flushLatency.record(Duration.ofNanos(System.nanoTime() - start));
+                    writtenRecords.increment(result.getInsertedCount());
+                    failedRecords.increment(batch.size() - result.getInsertedCount());
+                    log.debug("Lote de historial escrito: {} registros", result.getInsertedCount());
+                })
+                .doOnError(error -> {
+                    flushLatency.record(Duration.ofNanos(System.nanoTime() - start));
+                    failedRecords.increment(batch.size());
+                    log.error("Error escribiendo lote de historial ({} registros): {}", batch.size(), error.getMessage());
+                })
+                .onErrorResume(error -> absorb(batch).then(Mono.empty()))
+                .then();
+    }
+
+    private Mono<Void> absorb(List<CallHistory> batch) {
+        return Flux.fromIterable(batch)
+                .concatMap(writeAheadLog::absorb)
+                .then();
+    }
+
+    /**
+     * Deja de aceptar registros, espera (acotado) el lote que se está escribiendo y recién entonces
+     * vacía lo que quedó en la cola.
+     */
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        if (flushLoop != null) {
+            stopRequested.tryEmitValue(true);
+            try {
+                flushLoop.block(timeoutConfig.getDatabaseOperation());
+            } catch (RuntimeException e) {
+                log.warn("El lote de historial en curso no terminó antes de detener: {}", e.getMessage());
+                flushSubscription.dispose();
+            }
+        }
+        if (!queue.isEmpty()) {
+            log.info("Escribiendo {} registros de historial pendientes antes de detener", queue.size());
+            drain().block(timeoutConfig.getDatabaseOperation());
+        }
+    }
+}
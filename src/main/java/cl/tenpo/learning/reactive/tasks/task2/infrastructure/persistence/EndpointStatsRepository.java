@@ -0,0 +1,17 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.EndpointMinuteStats;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface EndpointStatsRepository extends ReactiveMongoRepository<EndpointMinuteStats, String> {
+
+    Flux<EndpointMinuteStats> findByMinuteBetween(Range<LocalDateTime> minutes);
+
+    Flux<EndpointMinuteStats> findByEndpointAndMinuteBetween(String endpoint, Range<LocalDateTime> minutes);
+}
@@ -0,0 +1,37 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryPersistenceConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryStorageConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryWalConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * El replay del WAL y la redelivery de Kafka reinsertan registros con su id ya asignado y cuentan con que
+ * Mongo rechace los repetidos por clave duplicada. En una colección time-series _id no es único, así que
+ * esos reintentos duplicarían el historial sin error: esas combinaciones se rechazan al iniciar.
+ */
+@Component
+@RequiredArgsConstructor
+public class HistoryDeduplicationGuard {
+
+    private final HistoryStorageConfig storageConfig;
+    private final HistoryPersistenceConfig persistenceConfig;
+    private final HistoryWalConfig walConfig;
+
+    @PostConstruct
+    public void verify() {
+        if (storageConfig.getLayout() != HistoryStorageConfig.Layout.TIME_SERIES) {
+            return;
+        }
+        if (persistenceConfig.getMode() == HistoryPersistenceConfig.Mode.KAFKA) {
+            throw new IllegalStateException("app.history.persistence.mode=kafka no es compatible con "
+                    + "app.history.storage.layout=time-series: la redelivery duplicaría registros");
+        }
+        if (walConfig.isEnabled()) {
+            throw new IllegalStateException("app.history.wal.enabled no es compatible con "
+                    + "app.history.storage.layout=time-series: el replay duplicaría registros");
+        }
+    }
+}
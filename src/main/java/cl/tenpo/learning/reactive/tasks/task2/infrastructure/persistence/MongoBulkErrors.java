@@ -0,0 +1,48 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.data.mongodb.BulkOperationException;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Clasificación de errores de bulk writes para las rutas que reinsertan lotes con ids ya asignados.
+ */
+public final class MongoBulkErrors {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private MongoBulkErrors() {
+    }
+
+    /**
+     * Errores por documento si Mongo procesó el lote y rechazó algunos; vacío si el lote ni siquiera se
+     * procesó (timeout, conexión). En un bulk UNORDERED los documentos no listados sí quedaron escritos.
+     */
+    public static Optional<List<BulkWriteError>> writeErrors(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof BulkOperationException bulk) {
+                return Optional.of(bulk.getErrors());
+            }
+            if (current instanceof MongoBulkWriteException bulk && bulk.getWriteConcernError() == null) {
+                return Optional.of(bulk.getWriteErrors());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * true si el único problema del lote fueron ids repetidos, es decir, registros que ya estaban escritos.
+     */
+    public static boolean onlyDuplicateKeys(Throwable error) {
+        return writeErrors(error)
+                .map(errors -> errors.stream().allMatch(MongoBulkErrors::isDuplicateKey))
+                .orElse(false);
+    }
+
+    public static boolean isDuplicateKey(BulkWriteError error) {
+        return error.getCode() == DUPLICATE_KEY;
+    }
+}
@@ -0,0 +1,100 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codificación binaria de payloads del historial: [marcador][largo original (int)][datos deflate].
+ * El marcador indica el códec para que los documentos escritos con uno anterior sigan siendo legibles:
+ * DEFLATE es deflate simple y DEFLATE_DICT_V1 usa un diccionario preestablecido con los fragmentos
+ * JSON que más se repiten en este servicio, lo que mejora mucho la compresión de payloads cortos.
+ * Un diccionario nuevo debe usar un marcador nuevo y conservar los anteriores.
+ */
+public final class PayloadCodec {
+
+    public static final byte DEFLATE = 1;
+    public static final byte DEFLATE_DICT_V1 = 2;
+
+    private static final int HEADER_BYTES = 1 + Integer.BYTES;
+
+    private static final byte[] DICTIONARY_V1 = String.join("",
+            "{\"number_1\":", ",\"number_2\":", "{\"result\":", ",\"num1\":", ",\"num2\":",
+            "{\"timestamp\":\"", "\",\"message\":\"", "\",\"details\":\"", "\",\"path\":\"/learning-reactive/",
+            "\",\"status\":", ",\"error\":\"", "Internal Server Error", "Bad Request", "Service Unavailable",
+            "Servicio externo no disponible y no hay valor en caché", "Usuario no autorizado para acceder al historial",
+            "calculation", "history", "users", "functional", "{\"index\":", ",\"response\":", ",\"errors\":[",
+            "\"username\":\"", "\"active\":true", "\"created_at\":\"", "null", "true", "false", "\"}", "\"},"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private final int level;
+    private final boolean useDictionary;
+
+    public PayloadCodec(int level, boolean useDictionary) {
+        this.level = level;
+        this.useDictionary = useDictionary;
+    }
+
+    public byte[] encode(String text) {
+        return encode(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public byte[] encode(byte[] input) {
+        Deflater deflater = new Deflater(level);
+        try {
+            if (useDictionary) {
+                deflater.setDictionary(DICTIONARY_V1);
+            }
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+            output.write(useDictionary ? DEFLATE_DICT_V1 : DEFLATE);
+            output.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(input.length).array());
+            byte[] chunk = new byte[Math.min(8192, Math.max(64, input.length))];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                output.write(chunk, 0, written);
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String decode(byte[] encoded) {
+        if (encoded.length < HEADER_BYTES) {
+            throw new IllegalArgumentException("Payload codificado truncado");
+        }
+        byte marker = encoded[0];
+        if (marker != DEFLATE && marker != DEFLATE_DICT_V1) {
+            throw new IllegalArgumentException("Códec de payload desconocido: " + marker);
+        }
+        int originalLength = ByteBuffer.wrap(encoded, 1, Integer.BYTES).getInt();
+        if (originalLength < 0) {
+            throw new IllegalArgumentException("Largo de payload codificado inválido: " + originalLength);
+        }
+        byte[] output = new byte[originalLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(encoded, HEADER_BYTES, encoded.length - HEADER_BYTES);
+            int inflated = 0;
+            while (inflated < originalLength) {
+                int count = inflater.inflate(output, inflated, originalLength - inflated);
+                if (count == 0 && inflater.needsDictionary()) {
+                    inflater.setDictionary(DICTIONARY_V1);
+                } else if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalArgumentException("Payload codificado incompleto");
+                }
+                inflated += count;
+            }
+            return new String(output, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Payload codificado inválido", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.PayloadText;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryCompressionConfig;
+import org.bson.BsonBinarySubType;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Convierte los payloads del historial entre {@link PayloadText} y su forma en Mongo: texto (documentos
+ * antiguos o payloads chicos) o binario USER_DEFINED con marcador de códec. Al leer no se descomprime nada;
+ * eso ocurre recién cuando se pide el texto. Se registra como instancia del contexto en
+ * {@link HistoryCompressionConfig#mongoCustomConversions}, nunca por reflexión, para que use la configuración.
+ */
+@Component
+public class PayloadTextConverter implements MongoValueConverter<PayloadText, Object> {
+
+    private final HistoryCompressionConfig config;
+    private final PayloadCodec codec;
+
+    public PayloadTextConverter(HistoryCompressionConfig config) {
+        this.config = config;
+        this.codec = new PayloadCodec(config.getLevel(), config.isUseDictionary());
+    }
+
+    @Override
+    public PayloadText read(Object value, MongoConversionContext context) {
+        if (value instanceof Binary binary) {
+            return PayloadText.encoded(binary.getData(), PayloadCodec::decode);
+        }
+        if (value instanceof byte[] bytes) {
+            return PayloadText.encoded(bytes, PayloadCodec::decode);
+        }
+        return PayloadText.of(value.toString());
+    }
+
+    @Override
+    public Object write(PayloadText value, MongoConversionContext context) {
+        if (value.encodedForm() != null) {
+            return new Binary(BsonBinarySubType.USER_DEFINED, value.encodedForm());
+        }
+        String text = value.text();
+        // Un char ocupa a lo más 3 bytes en UTF-8: los textos cortos se descartan sin codificarlos
+        if (!config.isEnabled() || text.length() * 3 < config.getThresholdBytes()) {
+            return text;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length < config.getThresholdBytes()) {
+            return text;
+        }
+        byte[] encoded = codec.encode(utf8);
+        if (encoded.length >= utf8.length) {
+            return text;
+        }
+        return new Binary(BsonBinarySubType.USER_DEFINED, encoded);
+    }
+}
@@ -0,0 +1,96 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.PayloadText;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Formato binario de un {@link CallHistory} en el WAL: versión, id, timestamp (segundos y nanos),
+ * endpoint, método, usuario (desde la versión 2), los tres payloads, éxito y duración.
+ * Los textos van como UTF-8 con largo (-1 = null).
+ */
+final class CallHistoryWalCodec {
+
+    private static final byte VERSION_1 = 1;
+    private static final byte VERSION = 2;
+    private static final long NO_DURATION = -1;
+
+    private CallHistoryWalCodec() {
+    }
+
+    static byte[] encode(CallHistory history) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            writeText(output, history.getId());
+            LocalDateTime timestamp = history.getTimestamp();
+            output.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+            output.writeInt(timestamp.getNano());
+            writeText(output, history.getEndpoint());
+            writeText(output, history.getMethod());
+            writeText(output, history.getUsername());
+            writeText(output, textOf(history.getParameters()));
+            writeText(output, textOf(history.getResponse()));
+            writeText(output, textOf(history.getError()));
+            output.writeBoolean(history.isSuccessful());
+            output.writeLong(history.getDurationMs() != null ? history.getDurationMs() : NO_DURATION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static CallHistory decode(byte[] payload) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = input.readByte();
+            if (version != VERSION && version != VERSION_1) {
+                throw new IllegalArgumentException("Versión de registro WAL desconocida: " + version);
+            }
+            CallHistory.CallHistoryBuilder builder = CallHistory.builder()
+                    .id(readText(input))
+                    .timestamp(LocalDateTime.ofEpochSecond(input.readLong(), input.readInt(), ZoneOffset.UTC))
+                    .endpoint(readText(input))
+                    .method(readText(input))
+                    .username(version >= VERSION ? readText(input) : null)
+                    .parameters(PayloadText.of(readText(input)))
+                    .response(PayloadText.of(readText(input)))
+                    .error(PayloadText.of(readText(input)))
+                    .successful(input.readBoolean());
+            long durationMs = input.readLong();
+            return builder.durationMs(durationMs != NO_DURATION ? durationMs : null).build();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Registro WAL truncado", e);
+        }
+    }
+
+    private static void writeText(DataOutputStream output, String text) throws IOException {
+        if (text == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(utf8.length);
+        output.write(utf8);
+    }
+
+    private static String readText(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(input.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static String textOf(PayloadText payload) {
+        return payload != null ? payload.text() : null;
+    }
+}
@@ -0,0 +1,133 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryWalConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.MongoBulkErrors;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reinserta en Mongo lo acumulado en el WAL a ritmo controlado: un lote de replay-batch-size por tick,
+ * con ticks espaciados para no superar replay-rate registros por segundo. Un lote fallido espera
+ * retry-interval antes del siguiente intento. Los registros llevan id, así que reinsertar un lote
+ * que ya había quedado escrito sólo produce claves duplicadas, que se ignoran; otros rechazos por
+ * documento se descartan para que un registro inválido no detenga el replay.
+ */
+@Slf4j
+@Component
+public class HistoryWalReplayer {
+
+    private final HistoryWriteAheadLog writeAheadLog;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final HistoryWalConfig config;
+    private final TimeoutConfig timeoutConfig;
+
+    private volatile long nextAttemptNanos;
+    private Disposable replayLoop;
+
+    public HistoryWalReplayer(HistoryWriteAheadLog writeAheadLog,
+                              ReactiveMongoTemplate mongoTemplate,
+                              HistoryWalConfig config,
+                              TimeoutConfig timeoutConfig) {
+        this.writeAheadLog = writeAheadLog;
+        this.mongoTemplate = mongoTemplate;
+        this.config = config;
+        this.timeoutConfig = timeoutConfig;
+        this.nextAttemptNanos = System.nanoTime();
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (!writeAheadLog.isEnabled()) {
+            return;
+        }
+        Duration tick = replayTick(config);
+        log.info("Replay del WAL de historial cada {} (lote={})", tick, config.getReplayBatchSize());
+        replayLoop = Flux.interval(tick)
+                .onBackpressureDrop()
+                .concatMap(t -> replayBatch(), 1)
+                .subscribe();
+    }
+
+    /**
+     * Intervalo entre lotes para que replay-batch-size registros por tick no superen replay-rate por segundo.
+     */
+    static Duration replayTick(HistoryWalConfig config) {
+        return Duration.ofMillis(Math.max(1, 1000L * config.getReplayBatchSize() / config.getReplayRate()));
+    }
+
+    /**
+     * Reinserta un lote. Completa con la cantidad de registros confirmados (0 si no había o si falló).
+     */
+    Mono<Integer> replayBatch() {
+        if (System.nanoTime() - nextAttemptNanos < 0) {
+            return Mono.just(0);
+        }
+        return Mono.fromCallable(() -> writeAheadLog.read(config.getReplayBatchSize()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(entries -> entries.isEmpty() ? Mono.just(0) : write(entries));
+    }
+
+    private Mono<Integer> write(List<SegmentLog.Entry> entries) {
+        List<CallHistory> records = new ArrayList<>(entries.size());
+        for (SegmentLog.Entry entry : entries) {
+            try {
+                records.add(CallHistoryWalCodec.decode(entry.payload()));
+            } catch (IllegalArgumentException e) {
+                log.error("Registro del WAL ilegible, se descarta: {}", e.getMessage());
+            }
+        }
+        SegmentLog.Position next = entries.get(entries.size() - 1).next();
+        Mono<Void> insert = records.isEmpty()
+                ? Mono.empty()
+                : mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CallHistory.class)
+                        .insert(records)
+                        .execute()
+                        .timeout(timeoutConfig.getDatabaseOperation())
+                        .then();
+        return insert
+                .onErrorResume(error -> MongoBulkErrors.writeErrors(error).isPresent(), error -> {
+                    // Mongo procesó el lote: los rechazos distintos de duplicados no mejoran reintentando
+                    long rejected = MongoBulkErrors.writeErrors(error).orElseThrow().stream()
+                            .filter(writeError -> !MongoBulkErrors.isDuplicateKey(writeError))
+                            .count();
+                    if (rejected > 0) {
+                        log.error("Mongo rechazó {} registros del WAL, se descartan: {}", rejected, error.getMessage());
+                    }
+                    return Mono.empty();
+                })
+                .then(Mono.fromCallable(() -> {
+                    writeAheadLog.commit(next, records.size());
+                    log.debug("Reinsertados {} registros de historial desde el WAL", records.size());
+                    return records.size();
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .onErrorResume(error -> {
+                    writeAheadLog.markStoreUnhealthy();
+                    nextAttemptNanos = System.nanoTime() + config.getRetryInterval().toNanos();
+                    log.warn("Replay del WAL de historial fallido ({} registros), se reintenta en {}: {}",
+                            records.size(), config.getRetryInterval(), error.getMessage());
+                    return Mono.just(0);
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (replayLoop != null) {
+            replayLoop.dispose();
+        }
+    }
+}
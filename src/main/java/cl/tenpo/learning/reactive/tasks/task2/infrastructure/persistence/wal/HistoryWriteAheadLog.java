@@ -0,0 +1,138 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryWalConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Absorbe los registros de historial que no se pudieron escribir en Mongo. Mientras el store está marcado
+ * como no saludable, los registros nuevos van directo al WAL sin esperar el timeout de Mongo; el
+ * {@link HistoryWalReplayer} lo vuelve a marcar saludable cuando logra reinsertar un lote.
+ */
+@Slf4j
+@Component
+public class HistoryWriteAheadLog {
+
+    private final HistoryWalConfig config;
+    private final AtomicBoolean storeHealthy = new AtomicBoolean(true);
+    private final Counter appendedRecords;
+    private final Counter rejectedRecords;
+    private final Counter replayedRecords;
+
+    private volatile SegmentLog segmentLog;
+
+    public HistoryWriteAheadLog(HistoryWalConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.appendedRecords = meterRegistry.counter("history.wal.records", "result", "appended");
+        this.rejectedRecords = meterRegistry.counter("history.wal.records", "result", "rejected");
+        this.replayedRecords = meterRegistry.counter("history.wal.records", "result", "replayed");
+        Gauge.builder("history.wal.offset", this, wal -> wal.segmentLog != null ? wal.segmentLog.appendOffset() : 0)
+                .tag("type", "append")
+                .description("Offset global hasta donde se ha escrito el WAL")
+                .register(meterRegistry);
+        Gauge.builder("history.wal.offset", this, wal -> wal.segmentLog != null ? wal.segmentLog.replayOffset() : 0)
+                .tag("type", "replay")
+                .description("Offset global hasta donde el WAL ya se reinsertó en Mongo")
+                .register(meterRegistry);
+        Gauge.builder("history.wal.disk.bytes", this, wal -> wal.segmentLog != null ? wal.segmentLog.diskBytes() : 0)
+                .description("Espacio en disco ocupado por los segmentos del WAL")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("history.wal.store.healthy", storeHealthy, healthy -> healthy.get() ? 1 : 0)
+                .description("1 si el historial se escribe en Mongo, 0 si se está desviando al WAL")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (config.getDirectory() == null || config.getDirectory().isBlank()
+                || !Path.of(config.getDirectory()).isAbsolute()) {
+            throw new IllegalStateException(
+                    "app.history.wal.directory debe ser una ruta absoluta cuando el WAL está activo: " + config.getDirectory());
+        }
+        Path directory = Path.of(config.getDirectory());
+        try {
+            segmentLog = SegmentLog.open(directory, config.getSegmentBytes(), config.getMaxDiskBytes());
+            log.info("WAL de historial en {} (pendiente desde offset {} hasta {})",
+                    directory.toAbsolutePath(), segmentLog.replayOffset(), segmentLog.appendOffset());
+        } catch (IOException | RuntimeException e) {
+            log.error("No se pudo abrir el WAL de historial en {}, queda desactivado: {}", directory, e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return segmentLog != null;
+    }
+
+    /**
+     * true si los registros nuevos deben ir directo al WAL porque el último intento contra Mongo falló.
+     */
+    public boolean shouldAbsorb() {
+        return isEnabled() && !storeHealthy.get();
+    }
+
+    /**
+     * Guarda un registro que Mongo no aceptó y marca el store como no saludable.
+     * Completa con true si quedó en el WAL y con false si se perdió (WAL desactivado o lleno).
+     */
+    public Mono<Boolean> absorb(CallHistory history) {
+        if (!isEnabled()) {
+            return Mono.just(false);
+        }
+        if (storeHealthy.compareAndSet(true, false)) {
+            log.warn("Mongo no disponible para el historial, desviando registros al WAL");
+        }
+        return Mono.fromCallable(() -> append(history))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    List<SegmentLog.Entry> read(int max) {
+        return segmentLog.read(max);
+    }
+
+    void commit(SegmentLog.Position next, int replayed) throws IOException {
+        segmentLog.commit(next);
+        replayedRecords.increment(replayed);
+        if (storeHealthy.compareAndSet(false, true)) {
+            log.info("Mongo disponible otra vez para el historial, los registros nuevos vuelven a escribirse directo");
+        }
+    }
+
+    void markStoreUnhealthy() {
+        storeHealthy.set(false);
+    }
+
+    private boolean append(CallHistory history) throws IOException {
+        if (segmentLog.append(CallHistoryWalCodec.encode(history))) {
+            appendedRecords.increment();
+            return true;
+        }
+        rejectedRecords.increment();
+        log.error("WAL de historial lleno ({} bytes), se descarta el registro de {}",
+                segmentLog.diskBytes(), history.getEndpoint());
+        return false;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (segmentLog != null) {
+            segmentLog.close();
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Log local de sólo-append en segmentos de tamaño fijo mapeados en memoria. Cada registro es
+ * [largo (int)][crc32 (int)][payload]; un largo 0 marca el final de lo escrito en el segmento (el archivo
+ * nace lleno de ceros). La posición de replay se guarda en un archivo checkpoint aparte y los segmentos
+ * ya consumidos se borran. Los offsets son globales: id de segmento * segment-bytes + posición.
+ * <p>
+ * Lo escrito queda en el page cache del sistema, así que sobrevive a una caída del proceso; un segmento
+ * se fuerza a disco al cerrarse. Al abrir se recorre el último segmento validando el crc para ubicar el
+ * final real y se limpia cualquier escritura a medias.
+ */
+public final class SegmentLog implements Closeable {
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxDiskBytes;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+
+    private Segment active;
+    private Position checkpoint;
+
+    public record Position(long segment, int offset) {
+    }
+
+    /**
+     * Registro leído y la posición desde donde sigue el log, para confirmarla con {@link #commit(Position)}.
+     */
+    public record Entry(byte[] payload, Position next) {
+    }
+
+    private SegmentLog(Path directory, int segmentBytes, long maxDiskBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxDiskBytes = maxDiskBytes;
+    }
+
+    public static SegmentLog open(Path directory, int segmentBytes, long maxDiskBytes) throws IOException {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("segment-bytes demasiado chico: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+        SegmentLog log = new SegmentLog(directory, segmentBytes, maxDiskBytes);
+        log.load();
+        return log;
+    }
+
+    /**
+     * Agrega un registro. Devuelve false si no cabe en un segmento o si se alcanzó max-disk-bytes.
+     */
+    public synchronized boolean append(byte[] payload) throws IOException {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) {
+            return false;
+        }
+        if (active.writePosition + recordBytes > segmentBytes) {
+            if (diskBytes() + segmentBytes > maxDiskBytes) {
+                return false;
+            }
+            active.buffer.force();
+            active = createSegment(active.id + 1);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = active.buffer;
+        int start = active.writePosition;
+        // El largo se escribe al final: un lector nunca ve un registro con el payload incompleto
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        buffer.put(start + HEADER_BYTES, payload);
+        buffer.putInt(start, payload.length);
+        active.writePosition = start + recordBytes;
+        return true;
+    }
+
+    /**
+     * Lee hasta max registros desde el checkpoint, sin avanzarlo.
+     */
+    public synchronized List<Entry> read(int max) {
+        List<Entry> entries = new ArrayList<>(Math.min(max, 256));
+        Position position = checkpoint;
+        while (entries.size() < max) {
+            Segment segment = segments.get(position.segment());
+            if (segment == null) {
+                break;
+            }
+            int length = position.offset() + HEADER_BYTES <= segmentBytes
+                    ? segment.buffer.getInt(position.offset())
+                    : 0;
+            if (length <= 0 || position.offset() + HEADER_BYTES + length > segmentBytes) {
+                if (segment == active) {
+                    break;
+                }
+                position = new Position(segment.id + 1, 0);
+                continue;
+            }
+            byte[] payload = new byte[length];
+            segment.buffer.get(position.offset() + HEADER_BYTES, payload);
+            if (!checksumMatches(segment.buffer, position.offset(), payload)) {
+                // Sólo un segmento cerrado puede estar dañado (el activo se valida al abrir): se salta su resto
+                if (segment == active) {
+                    break;
+                }
+                position = new Position(segment.id + 1, 0);
+                continue;
+            }
+            position = new Position(segment.id, position.offset() + HEADER_BYTES + length);
+            entries.add(new Entry(payload, position));
+        }
+        return entries;
+    }
+
+    /**
+     * Avanza el checkpoint y borra los segmentos que quedaron completamente consumidos.
+     */
+    public synchronized void commit(Position next) throws IOException {
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        ByteBuffer content = ByteBuffer.allocate(Long.BYTES + Integer.BYTES)
+                .putLong(next.segment())
+                .putInt(next.offset())
+                .flip();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(content);
+            channel.force(false);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = next;
+        deleteConsumedSegments();
+    }
+
+    public synchronized boolean hasPending() {
+        return !read(1).isEmpty();
+    }
+
+    public synchronized long diskBytes() {
+        return (long) segments.size() * segmentBytes;
+    }
+
+    public synchronized long appendOffset() {
+        return active.id * segmentBytes + active.writePosition;
+    }
+
+    public synchronized long replayOffset() {
+        return checkpoint.segment() * segmentBytes + checkpoint.offset();
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.values().forEach(segment -> segment.buffer.force());
+    }
+
+    private void load() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                segments.put(id, new Segment(id, map(file)));
+            }
+        }
+        checkpoint = readCheckpoint();
+        if (segments.isEmpty()) {
+            active = createSegment(checkpoint.segment());
+            return;
+        }
+        if (checkpoint.segment() < segments.firstKey()) {
+            checkpoint = new Position(segments.firstKey(), 0);
+        }
+        active = segments.lastEntry().getValue();
+        active.writePosition = recoverWritePosition(active);
+        deleteConsumedSegments();
+    }
+
+    private Position readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return new Position(segments.isEmpty() ? 0 : segments.firstKey(), 0);
+        }
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+        return new Position(content.getLong(), content.getInt());
+    }
+
+    private int recoverWritePosition(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            if (!checksumMatches(buffer, position, payload)) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        // Lo que queda después puede ser un registro a medias: se limpia para que no se confunda con los nuevos
+        for (int tail = position; tail < segmentBytes; tail++) {
+            buffer.put(tail, (byte) 0);
+        }
+        return position;
+    }
+
+    private void deleteConsumedSegments() throws IOException {
+        Map<Long, Segment> consumed = segments.headMap(checkpoint.segment());
+        for (Segment segment : new ArrayList<>(consumed.values())) {
+            if (segment != active) {
+                // El mapeo se libera cuando el buffer se recolecta; borrar el archivo mapeado es seguro en Linux
+                Files.deleteIfExists(segmentPath(segment.id));
+                segments.remove(segment.id);
+            }
+        }
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Segment segment = new Segment(id, map(segmentPath(id)));
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+    }
+
+    private static boolean checksumMatches(ByteBuffer buffer, int position, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return buffer.getInt(position + Integer.BYTES) == (int) crc.getValue();
+    }
+
+    private static final class Segment {
+
+        private final long id;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+
+        private Segment(long id, MappedByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.ConcurrencyLimitConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Límite de concurrencia adaptativo (estilo gradient) para las llamadas al proveedor de porcentaje.
+ * El límite se ajusta con la relación entre el RTT de largo plazo (EWMA) y el RTT de la última muestra:
+ * si el proveedor se vuelve más lento el límite baja, si responde como siempre sube de a sqrt(limit).
+ * Las llamadas por encima del límite se rechazan al instante con {@link ConcurrencyLimitExceededException}.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final ConcurrencyLimitConfig config;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejectedCalls;
+
+    private volatile double limit;
+    private volatile double longRttNanos;
+    private volatile double lastRttNanos;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.limit = config.getInitialLimit();
+        this.rejectedCalls = Counter.builder("concurrency.limit.rejected")
+                .description("Llamadas rechazadas por superar el límite de concurrencia")
+                .tag("name", "percentage")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit", this, limiter -> limiter.limit)
+                .tag("name", "percentage")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.in.flight", inFlight, AtomicInteger::get)
+                .tag("name", "percentage")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.rtt.long", this, limiter -> limiter.longRttNanos / 1_000_000.0)
+                .description("RTT de largo plazo (EWMA) en ms")
+                .tag("name", "percentage")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.rtt.last", this, limiter -> limiter.lastRttNanos / 1_000_000.0)
+                .description("RTT de la última muestra en ms")
+                .tag("name", "percentage")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        if (!config.isEnabled()) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                rejectedCalls.increment();
+                return Mono.error(new ConcurrencyLimitExceededException(
+                        "Límite de concurrencia alcanzado (" + (int) limit + ") hacia el servicio externo"));
+            }
+            long start = System.nanoTime();
+            return call.get()
+                    .doOnSuccess(value -> onSample(System.nanoTime() - start))
+                    .doOnError(this::onError)
+                    .doOnCancel(inFlight::decrementAndGet);
+        });
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void onError(Throwable error) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (error instanceof TimeoutException) {
+            synchronized (this) {
+                limit = clamp(limit * config.getBackoffRatio());
+            }
+            log.debug("Timeout hacia el servicio externo con {} en vuelo - nuevo límite {}", inFlightAtCompletion, (int) limit);
+        }
+    }
+
+    private void onSample(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        synchronized (this) {
+            lastRttNanos = rttNanos;
+            if (longRttNanos == 0) {
+                longRttNanos = rttNanos;
+            } else {
+                double alpha = 2.0 / (config.getLongWindow() + 1);
+                longRttNanos = longRttNanos * (1 - alpha) + rttNanos * alpha;
+                // Si el RTT largo quedó muy por encima del actual, se acelera su recuperación
+                if (longRttNanos / rttNanos > 2.0) {
+                    longRttNanos = longRttNanos * 0.95;
+                }
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, config.getRttTolerance() * longRttNanos / rttNanos));
+            // Sin suficiente carga no hay evidencia para crecer el límite
+            if (gradient >= 1.0 && inFlightAtCompletion < limit / 2) {
+                return;
+            }
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            limit = clamp(limit * (1 - config.getSmoothing()) + newLimit * config.getSmoothing());
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), value));
+    }
+}
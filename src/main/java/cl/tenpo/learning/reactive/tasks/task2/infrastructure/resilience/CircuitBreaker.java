@@ -0,0 +1,178 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.CircuitBreakerConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.event.CircuitBreakerStateChangedEvent;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.CircuitOpenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker reactivo (CLOSED / OPEN / HALF_OPEN).
+ * En CLOSED evalúa la tasa de fallos sobre una ventana deslizante de las últimas N llamadas;
+ * en OPEN rechaza inmediatamente con {@link CircuitOpenException} hasta que vence open-duration;
+ * en HALF_OPEN deja pasar un número limitado de sondas para comprobar la recuperación.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final CircuitBreakerConfig config;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Predicate<Throwable> ignoredErrors;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private Instant openedAt = Instant.EPOCH;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private final Counter rejectedCalls;
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config, ApplicationEventPublisher eventPublisher,
+                          MeterRegistry meterRegistry, Clock clock, Predicate<Throwable> ignoredErrors) {
+        this.name = name;
+        this.config = config;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.ignoredErrors = ignoredErrors;
+        this.window = new boolean[config.getSlidingWindowSize()];
+        this.rejectedCalls = Counter.builder("circuitbreaker.calls")
+                .tag("name", name)
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("circuitbreaker.state", this, breaker -> breaker.getState().ordinal())
+                .description("Estado del circuito: 0=CLOSED, 1=OPEN, 2=HALF_OPEN")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        if (!config.isEnabled()) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            if (!tryAcquirePermission()) {
+                rejectedCalls.increment();
+                return Mono.error(new CircuitOpenException("Circuito " + name + " abierto - llamada no permitida"));
+            }
+            return call.get()
+                    .doOnSuccess(value -> onSuccess())
+                    .doOnError(this::onError)
+                    .doOnCancel(this::releasePermission);
+        });
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openedAt.plus(config.getOpenDuration()))) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= config.getHalfOpenProbes()) {
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenSuccesses++;
+            if (halfOpenSuccesses >= config.getHalfOpenProbes()) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onError(Throwable error) {
+        if (ignoredErrors.test(error)) {
+            releasePermissionInternal();
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= config.getMinimumCalls()
+                    && windowFailures * 100.0 / windowCount >= config.getFailureRateThreshold()) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    private synchronized void releasePermission() {
+        releasePermissionInternal();
+    }
+
+    private void releasePermissionInternal() {
+        if (state == State.HALF_OPEN && halfOpenPermits > halfOpenSuccesses) {
+            halfOpenPermits--;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transitionTo(State newState) {
+        State previous = state;
+        state = newState;
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAt = clock.instant();
+        }
+
+        log.warn("Circuito {} cambió de estado: {} -> {}", name, previous, newState);
+        meterRegistry.counter("circuitbreaker.transitions", "name", name, "from", previous.name(), "to", newState.name())
+                .increment();
+        eventPublisher.publishEvent(new CircuitBreakerStateChangedEvent(name, previous, newState));
+    }
+}
@@ -1,6 +1,7 @@
 package cl.tenpo.learning.reactive.tasks.task2.infrastructure.retry;
 
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.event.RetryExhaustedEvent;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.ConcurrencyLimitExceededException;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.ServiceUnavailableException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +37,7 @@ public class BackoffRetryStrategy implements RetryStrategy {
 
         return Retry.backoff(maxAttempts, initialBackoff)
                 .maxBackoff(maxBackoff)
+                .filter(error -> !(error instanceof ConcurrencyLimitExceededException))
                 .doBeforeRetry(signal -> 
                     log.warn("Retry attempt #{}/{} for {} - Cause: {}", 
                         signal.totalRetries() + 1, maxAttempts, className, signal.failure().getMessage()))
@@ -0,0 +1,258 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.stats;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.EndpointMinuteStats;
+import cl.tenpo.learning.reactive.tasks.task2.domain.stats.LatencySketch;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryStatsConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.MongoBulkErrors;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Mantiene los rollups por (endpoint, método, minuto) a medida que se observan las llamadas y los
+ * escribe en Mongo cada flush-interval con upserts $inc en bulk. Las requests toman el read lock
+ * (compartido) y el flush el write lock sólo para cambiar el mapa, así ningún registro queda en un mapa ya drenado.
+ * Los $inc no son idempotentes: tras un error sólo se reintentan los upserts que Mongo rechazó uno a uno;
+ * si no se sabe qué se aplicó (timeout, conexión) el lote se descarta, para perder un intervalo antes que contarlo dos veces.
+ */
+@Slf4j
+@Component
+public class HistoryStatsAggregator {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final HistoryStatsConfig config;
+    private final TimeoutConfig timeoutConfig;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Timer flushLatency;
+    private final Counter flushedRollups;
+    private final Counter failedRollups;
+    private final Counter droppedRollups;
+
+    private Map<RollupKey, MinuteRollup> rollups = new ConcurrentHashMap<>();
+    private Disposable flushLoop;
+
+    public HistoryStatsAggregator(ReactiveMongoTemplate mongoTemplate,
+                                  HistoryStatsConfig config,
+                                  TimeoutConfig timeoutConfig,
+                                  MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.config = config;
+        this.timeoutConfig = timeoutConfig;
+        this.flushLatency = Timer.builder("history.stats.flush")
+                .description("Duración de cada escritura de rollups de estadísticas")
+                .register(meterRegistry);
+        this.flushedRollups = meterRegistry.counter("history.stats.rollups", "result", "written");
+        this.failedRollups = meterRegistry.counter("history.stats.rollups", "result", "failed");
+        this.droppedRollups = meterRegistry.counter("history.stats.rollups", "result", "dropped");
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        log.info("Estadísticas de historial activas (flush cada {})", config.getFlushInterval());
+        flushLoop = Flux.interval(config.getFlushInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> flush())
+                .subscribe();
+    }
+
+    public void record(String endpoint, String method, boolean successful, long durationNanos) {
+        record(endpoint, method, successful, durationNanos, LocalDateTime.now());
+    }
+
+    void record(String endpoint, String method, boolean successful, long durationNanos, LocalDateTime at) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        RollupKey key = new RollupKey(endpoint, method, at.truncatedTo(ChronoUnit.MINUTES));
+        long micros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+        swapLock.readLock().lock();
+        try {
+            rollups.computeIfAbsent(key, k -> new MinuteRollup(config.getRelativeAccuracy()))
+                    .add(successful, micros);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rollups aún no escritos en Mongo, para que las consultas incluyan el último intervalo.
+     */
+    public List<EndpointMinuteStats> pending() {
+        swapLock.readLock().lock();
+        try {
+            List<EndpointMinuteStats> pending = new ArrayList<>(rollups.size());
+            rollups.forEach((key, rollup) -> pending.add(rollup.toStats(key)));
+            return pending;
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public Mono<Void> flush() {
+        Map<RollupKey, MinuteRollup> drained = drain();
+        if (drained.isEmpty()) {
+            return Mono.empty();
+        }
+        // El índice de cada upsert en el bulk identifica su rollup en los errores por documento
+        List<Map.Entry<RollupKey, MinuteRollup>> batch = new ArrayList<>(drained.entrySet());
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EndpointMinuteStats.class);
+        batch.forEach(entry -> {
+            EndpointMinuteStats stats = entry.getValue().toStats(entry.getKey());
+            bulk.upsert(Query.query(Criteria.where("_id").is(stats.getId())), toUpdate(stats));
+        });
+        long start = System.nanoTime();
+        return Mono.defer(bulk::execute)
+                .timeout(timeoutConfig.getDatabaseOperation())
+                .doOnSuccess(result -> {
+                    flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    flushedRollups.increment(batch.size());
+                    log.debug("Rollups de estadísticas escritos: {}", batch.size());
+                })
+                .onErrorResume(error -> {
+                    handleFailure(batch, error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void handleFailure(List<Map.Entry<RollupKey, MinuteRollup>> batch, Throwable error) {
+        Optional<List<BulkWriteError>> writeErrors = MongoBulkErrors.writeErrors(error);
+        if (writeErrors.isEmpty()) {
+            droppedRollups.increment(batch.size());
+            log.error("Error escribiendo {} rollups de estadísticas sin saber cuáles se aplicaron, se descartan: {}",
+                    batch.size(), error.getMessage());
+            return;
+        }
+        Map<RollupKey, MinuteRollup> failed = new HashMap<>();
+        writeErrors.get().forEach(writeError -> {
+            Map.Entry<RollupKey, MinuteRollup> entry = batch.get(writeError.getIndex());
+            failed.put(entry.getKey(), entry.getValue());
+        });
+        flushedRollups.increment(batch.size() - failed.size());
+        failedRollups.increment(failed.size());
+        log.error("Mongo rechazó {} de {} rollups de estadísticas, se reintentan en el próximo flush: {}",
+                failed.size(), batch.size(), error.getMessage());
+        restore(failed);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushLoop != null) {
+            flushLoop.dispose();
+        }
+        flush().block(timeoutConfig.getDatabaseOperation());
+    }
+
+    private Map<RollupKey, MinuteRollup> drain() {
+        swapLock.writeLock().lock();
+        try {
+            Map<RollupKey, MinuteRollup> drained = rollups;
+            rollups = new ConcurrentHashMap<>();
+            return drained;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void restore(Map<RollupKey, MinuteRollup> failed) {
+        swapLock.readLock().lock();
+        try {
+            failed.forEach((key, rollup) -> rollups.merge(key, rollup, MinuteRollup::mergedWith));
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static Update toUpdate(EndpointMinuteStats stats) {
+        Update update = new Update()
+                .setOnInsert("endpoint", stats.getEndpoint())
+                .setOnInsert("method", stats.getMethod())
+                .setOnInsert("minute", stats.getMinute())
+                .inc("successes", stats.getSuccesses())
+                .inc("failures", stats.getFailures())
+                .inc("durationSumMicros", stats.getDurationSumMicros());
+        stats.getLatency().forEach((bucket, count) -> update.inc("latency." + bucket, count));
+        return update;
+    }
+
+    record RollupKey(String endpoint, String method, LocalDateTime minute) {
+    }
+
+    static final class MinuteRollup {
+
+        private final LatencySketch sketch;
+        private long successes;
+        private long failures;
+        private long durationSumMicros;
+
+        MinuteRollup(double relativeAccuracy) {
+            this.sketch = new LatencySketch(relativeAccuracy);
+        }
+
+        synchronized void add(boolean successful, long micros) {
+            if (successful) {
+                successes++;
+            } else {
+                failures++;
+            }
+            durationSumMicros += micros;
+            sketch.add(micros);
+        }
+
+        synchronized MinuteRollup mergedWith(MinuteRollup other) {
+            synchronized (other) {
+                successes += other.successes;
+                failures += other.failures;
+                durationSumMicros += other.durationSumMicros;
+                sketch.merge(other.sketch);
+            }
+            return this;
+        }
+
+        synchronized EndpointMinuteStats toStats(RollupKey key) {
+            Map<String, Long> latency = new HashMap<>();
+            sketch.buckets().forEach((bucket, count) -> latency.put(String.valueOf(bucket), count));
+            return EndpointMinuteStats.builder()
+                    .id(EndpointMinuteStats.idOf(key.endpoint(), key.method(), key.minute()))
+                    .endpoint(key.endpoint())
+                    .method(key.method())
+                    .minute(key.minute())
+                    .successes(successes)
+                    .failures(failures)
+                    .durationSumMicros(durationSumMicros)
+                    .latency(latency)
+                    .build();
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package cl.tenpo.learning.reactive.tasks.task2.presentation.controller;
 
 import cl.tenpo.learning.reactive.tasks.task2.application.port.CalculationService;
+import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationBatchItem;
 import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationRequest;
 import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -32,4 +35,19 @@ public class CalculationController {
                 .doOnSuccess(response -> log.info("Calculation request [{}] completed: {}", requestId, response))
                 .doOnError(error -> log.error("Calculation request [{}] failed: {}", requestId, error.getMessage()));
     }
+
+    @PostMapping(value = "${app.api.endpoints.calculation}/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CalculationBatchItem> calculateBatch(
+            @RequestBody Flux<CalculationRequest> calculationRequests,
+            ServerWebExchange exchange) {
+
+        final String requestId = exchange.getRequest().getId();
+        log.info("Received calculation batch [{}]", requestId);
+
+        return calculationService.processBatch(calculationRequests)
+                .doOnComplete(() -> log.info("Calculation batch [{}] completed", requestId))
+                .doOnError(error -> log.error("Calculation batch [{}] failed: {}", requestId, error.getMessage()));
+    }
 }
@@ -1,6 +1,9 @@
 package cl.tenpo.learning.reactive.tasks.task2.presentation.controller;
 
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.PercentageCacheService;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryCapturePolicyConfig;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.RedisConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.filter.HistoryCapturePolicy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationContext;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
@@ -11,6 +14,7 @@ import org.springframework.web.reactive.result.method.annotation.RequestMappingH
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -20,6 +24,8 @@ public class DebugController {
 
     private final ApplicationContext applicationContext;
     private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final PercentageCacheService percentageCacheService;
+    private final HistoryCapturePolicy historyCapturePolicy;
 
     @GetMapping("/routes")
     public Mono<Map<String, String>> getRoutes() {
@@ -43,6 +49,7 @@ public class DebugController {
     @DeleteMapping("/clear-cache")
     public Mono<Map<String, String>> clearRedisCache() {
         return reactiveRedisTemplate.opsForValue().delete(RedisConfig.PERCENTAGE_KEY)
+                .doOnNext(result -> percentageCacheService.invalidateLocal())
                 .map(result -> {
                     Map<String, String> response = new HashMap<>();
                     response.put("status", "success");
@@ -56,4 +63,20 @@ public class DebugController {
     public Mono<Map<String, String>> clearRedisCachePost() {
         return clearRedisCache();
     }
+
+    @GetMapping("/history-policy")
+    public Mono<List<HistoryCapturePolicyConfig.Rule>> getHistoryPolicy() {
+        return Mono.fromSupplier(historyCapturePolicy::currentRules);
+    }
+
+    /**
+     * Reemplaza las reglas de muestreo/captura del historial sin reiniciar la aplicación.
+     */
+    @PutMapping("/history-policy")
+    public Mono<List<HistoryCapturePolicyConfig.Rule>> updateHistoryPolicy(@RequestBody List<HistoryCapturePolicyConfig.Rule> rules) {
+        return Mono.fromSupplier(() -> {
+            historyCapturePolicy.update(rules);
+            return historyCapturePolicy.currentRules();
+        });
+    }
 }
@@ -1,5 +1,7 @@
 package cl.tenpo.learning.reactive.tasks.task2.presentation.controller;
 
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.ExternalStubConfig;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,14 +12,15 @@ import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.Duration;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 @RestController
 @RequestMapping("/external-api")
 @Slf4j
+@RequiredArgsConstructor
 public class ExternalPercentageController {
 
-    private final Random random = new Random();
+    private final ExternalStubConfig stubConfig;
 
     @Value("${app.testing.force-external-api-error:false}")
     private boolean forceError;
@@ -54,13 +57,21 @@ public class ExternalPercentageController {
 
     private Mono<BigDecimal> generatePercentage() {
         return Mono.defer(() -> {
-            int trigger = random.nextInt(10);
-            Mono<Integer> valueMono = (trigger < 5)
-                    ? Mono.delay(Duration.ofSeconds(10))
-                    .thenReturn(random.nextInt(10) + 10)
-                    : Mono.just(random.nextInt(10) + 10);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Duration latency = stubConfig.getBaseLatency();
+            if (!stubConfig.getJitter().isZero()) {
+                latency = latency.plusNanos(random.nextLong(stubConfig.getJitter().toNanos() + 1));
+            }
+            if (random.nextDouble() < stubConfig.getSlowRatio()) {
+                latency = latency.plus(stubConfig.getSlowLatency());
+            }
+            boolean fail = random.nextDouble() < stubConfig.getErrorRatio();
+            int value = random.nextInt(10) + 10;
 
-            return valueMono.map(n -> BigDecimal.valueOf(n).movePointLeft(2));
+            Mono<BigDecimal> response = fail
+                    ? Mono.error(new RuntimeException("Error simulado del proveedor externo"))
+                    : Mono.just(BigDecimal.valueOf(value).movePointLeft(2));
+            return latency.isZero() ? response : Mono.delay(latency).then(response);
         });
     }
 }
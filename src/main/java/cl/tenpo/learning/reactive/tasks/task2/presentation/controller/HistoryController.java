@@ -1,17 +1,26 @@
 package cl.tenpo.learning.reactive.tasks.task2.presentation.controller;
 
 import cl.tenpo.learning.reactive.tasks.task2.application.port.CallHistoryService;
+import cl.tenpo.learning.reactive.tasks.task2.application.port.HistoryStatsService;
 import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryFilter;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryPage;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryStats;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
 
 @Slf4j
 @RestController
@@ -20,8 +29,9 @@ import reactor.core.publisher.Flux;
 public class HistoryController {
     
     private final CallHistoryService callHistoryService;
+    private final HistoryStatsService historyStatsService;
 
-    @GetMapping("${app.api.endpoints.history}")
+    @GetMapping(value = "${app.api.endpoints.history}", params = "!cursor")
     public Flux<CallHistory> getHistory(
             @RequestParam(required = true) String username,
             @RequestParam(defaultValue = "0") int page, 
@@ -32,4 +42,55 @@ public class HistoryController {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
         return callHistoryService.getHistoryForAuthorizedUser(username, pageable);
     }
+
+    /**
+     * Paginación por cursor: la primera página se pide con cursor vacío y las siguientes
+     * con el next_cursor de la respuesta anterior, repitiendo los mismos filtros.
+     * user filtra por quien hizo la llamada; username es quien consulta.
+     */
+    @GetMapping(value = "${app.api.endpoints.history}", params = "cursor")
+    public Mono<HistoryPage> getHistoryPage(
+            @RequestParam(required = true) String username,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String endpoint,
+            @RequestParam(required = false) String method,
+            @RequestParam(required = false) Boolean successful,
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        log.info("Fetching call history page for user: {}", username);
+        
+        HistoryFilter filter = new HistoryFilter(endpoint, method, successful, user, from, to);
+        return callHistoryService.getHistoryPageForAuthorizedUser(username, cursor, size, filter);
+    }
+
+    /**
+     * Exportación del historial de un rango [from, to) como NDJSON o SSE según el header Accept.
+     */
+    @GetMapping(value = "${app.api.endpoints.history}/export",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<CallHistory> exportHistory(
+            @RequestParam(required = true) String username,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        return callHistoryService.exportHistoryForAuthorizedUser(username, from, to != null ? to : LocalDateTime.now())
+                .flatMapMany(records -> records);
+    }
+
+    /**
+     * Estadísticas por endpoint del rango [from, to), calculadas desde los rollups por minuto.
+     * Por defecto cubre la última hora.
+     */
+    @GetMapping("${app.api.endpoints.history}/stats")
+    public Mono<HistoryStats> getHistoryStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String endpoint) {
+        
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        return historyStatsService.getStats(from != null ? from : end.minusHours(1), end, endpoint);
+    }
 }
@@ -0,0 +1,24 @@
+package cl.tenpo.learning.reactive.tasks.task2.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de un elemento del lote: la respuesta del cálculo o sus errores de validación.
+ * El índice corresponde a la posición del elemento en la petición.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CalculationBatchItem {
+    private long index;
+    private CalculationResponse response;
+    private List<String> errors;
+}
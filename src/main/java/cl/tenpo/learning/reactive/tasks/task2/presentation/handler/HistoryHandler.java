@@ -1,22 +1,34 @@
 package cl.tenpo.learning.reactive.tasks.task2.presentation.handler;
 
 import cl.tenpo.learning.reactive.tasks.task2.application.port.CallHistoryService;
+import cl.tenpo.learning.reactive.tasks.task2.application.port.HistoryStatsService;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryFilter;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.UnauthorizedException;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.factory.ResponseFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class HistoryHandler {
 
     private final CallHistoryService callHistoryService;
+    private final HistoryStatsService historyStatsService;
     private final ResponseFactory responseFactory;
     public Mono<ServerResponse> getHistory(ServerRequest request) {
+        if (request.queryParam("cursor").isPresent()) {
+            return getHistoryPage(request);
+        }
         Integer page = request.queryParam("page").map(Integer::parseInt).orElse(null);
         Integer size = request.queryParam("size").map(Integer::parseInt).orElse(null);
         
@@ -25,4 +37,76 @@ public class HistoryHandler {
                 .doOnError(error -> log.error("Error in history handler: {}", error.getMessage()))
                 .onErrorResume(responseFactory::error);
     }
+
+    private Mono<ServerResponse> getHistoryPage(ServerRequest request) {
+        String cursor = request.queryParam("cursor").orElse(null);
+        Integer size = request.queryParam("size").map(Integer::parseInt).orElse(null);
+        
+        return Mono.defer(() -> callHistoryService.getHistoryPage(cursor, size, filterOf(request)))
+                .flatMap(responseFactory::success)
+                .doOnError(error -> log.error("Error in history page handler: {}", error.getMessage()))
+                .onErrorResume(DateTimeParseException.class, responseFactory::badRequest)
+                .onErrorResume(IllegalArgumentException.class, responseFactory::badRequest)
+                .onErrorResume(responseFactory::error);
+    }
+
+    private static HistoryFilter filterOf(ServerRequest request) {
+        return new HistoryFilter(
+                request.queryParam("endpoint").orElse(null),
+                request.queryParam("method").orElse(null),
+                request.queryParam("successful").map(HistoryHandler::parseBoolean).orElse(null),
+                request.queryParam("user").orElse(null),
+                request.queryParam("from").map(LocalDateTime::parse).orElse(null),
+                request.queryParam("to").map(LocalDateTime::parse).orElse(null));
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+            throw new IllegalArgumentException("El parámetro successful debe ser true o false");
+        }
+        return Boolean.valueOf(value);
+    }
+
+    /**
+     * Exportación en streaming: SSE si el cliente lo acepta, NDJSON en otro caso.
+     */
+    public Mono<ServerResponse> exportHistory(ServerRequest request) {
+        String username = request.queryParam("username").orElse(null);
+        if (username == null) {
+            return responseFactory.badRequest("El parámetro username es obligatorio");
+        }
+        MediaType mediaType = request.headers().accept().contains(MediaType.TEXT_EVENT_STREAM)
+                ? MediaType.TEXT_EVENT_STREAM
+                : MediaType.APPLICATION_NDJSON;
+        
+        return Mono.fromCallable(() -> {
+                    LocalDateTime from = request.queryParam("from").map(LocalDateTime::parse)
+                            .orElseThrow(() -> new IllegalArgumentException("El parámetro from es obligatorio"));
+                    LocalDateTime to = request.queryParam("to").map(LocalDateTime::parse).orElseGet(LocalDateTime::now);
+                    if (!from.isBefore(to)) {
+                        throw new IllegalArgumentException("El rango de exportación debe cumplir from < to");
+                    }
+                    return callHistoryService.exportHistoryForAuthorizedUser(username, from, to);
+                })
+                .flatMap(export -> export)
+                .flatMap(records -> ServerResponse.ok()
+                        .contentType(mediaType)
+                        .body(records, CallHistory.class))
+                .onErrorResume(DateTimeParseException.class, responseFactory::badRequest)
+                .onErrorResume(IllegalArgumentException.class, responseFactory::badRequest)
+                .onErrorResume(UnauthorizedException.class, responseFactory::unauthorized);
+    }
+
+    public Mono<ServerResponse> getHistoryStats(ServerRequest request) {
+        return Mono.defer(() -> {
+                    LocalDateTime to = request.queryParam("to").map(LocalDateTime::parse).orElseGet(LocalDateTime::now);
+                    LocalDateTime from = request.queryParam("from").map(LocalDateTime::parse).orElse(to.minusHours(1));
+                    return historyStatsService.getStats(from, to, request.queryParam("endpoint").orElse(null));
+                })
+                .flatMap(responseFactory::success)
+                .doOnError(error -> log.error("Error in history stats handler: {}", error.getMessage()))
+                .onErrorResume(DateTimeParseException.class, responseFactory::badRequest)
+                .onErrorResume(IllegalArgumentException.class, responseFactory::badRequest)
+                .onErrorResume(responseFactory::error);
+    }
 }
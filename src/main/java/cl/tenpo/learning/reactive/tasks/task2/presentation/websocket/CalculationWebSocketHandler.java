@@ -0,0 +1,79 @@
+package cl.tenpo.learning.reactive.tasks.task2.presentation.websocket;
+
+import cl.tenpo.learning.reactive.tasks.task2.application.port.CalculationService;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.WebSocketConfig;
+import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationBatchItem;
+import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.List;
+
+/**
+ * Canal WebSocket para clientes de alta frecuencia: cada mensaje de texto es un CalculationRequest
+ * y cada respuesta un CalculationBatchItem con el índice del mensaje dentro de la sesión.
+ * Los mensajes se agrupan en ventanas cortas que reutilizan {@link CalculationService#processBatch},
+ * así el porcentaje se resuelve una vez por ventana y no por mensaje.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CalculationWebSocketHandler implements WebSocketHandler {
+
+    private final CalculationService calculationService;
+    private final ObjectMapper objectMapper;
+    private final WebSocketConfig webSocketConfig;
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        log.info("Calculation stream session opened [{}]", session.getId());
+
+        Flux<WebSocketMessage> responses = session.receive()
+                .map(WebSocketMessage::getPayloadAsText)
+                .map(this::readRequest)
+                .index()
+                .windowTimeout(webSocketConfig.getWindowSize(), webSocketConfig.getWindowTimeout())
+                .concatMap(window -> window.collectList().flatMapMany(this::processWindow))
+                .map(item -> session.textMessage(writeItem(item)));
+
+        return session.send(responses)
+                .doOnError(error -> log.error("Calculation stream session [{}] failed: {}", session.getId(), error.getMessage()))
+                .doFinally(signal -> log.info("Calculation stream session closed [{}]: {}", session.getId(), signal));
+    }
+
+    private Flux<CalculationBatchItem> processWindow(List<Tuple2<Long, CalculationRequest>> window) {
+        if (window.isEmpty()) {
+            return Flux.empty();
+        }
+        long offset = window.get(0).getT1();
+        return calculationService.processBatch(Flux.fromIterable(window).map(Tuple2::getT2))
+                .doOnNext(item -> item.setIndex(offset + item.getIndex()));
+    }
+
+    private CalculationRequest readRequest(String payload) {
+        try {
+            return objectMapper.readValue(payload, CalculationRequest.class);
+        } catch (JsonProcessingException e) {
+            // Un mensaje ilegible se informa como elemento inválido sin cerrar la sesión
+            log.warn("Invalid calculation stream message: {}", e.getOriginalMessage());
+            return new CalculationRequest();
+        }
+    }
+
+    private String writeItem(CalculationBatchItem item) {
+        try {
+            return objectMapper.writeValueAsString(item);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize calculation result", e);
+        }
+    }
+}
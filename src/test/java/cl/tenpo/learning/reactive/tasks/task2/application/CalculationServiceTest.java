@@ -1,18 +1,25 @@
 package cl.tenpo.learning.reactive.tasks.task2.application;
 
 import cl.tenpo.learning.reactive.tasks.task2.application.port.PercentageService;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.CalculationResultCache;
 import cl.tenpo.learning.reactive.tasks.task2.presentation.dto.CalculationRequest;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.util.Optional;
 
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,6 +27,9 @@ public class CalculationServiceTest {
 
     @Mock
     private PercentageService percentageService;
+
+    @Mock
+    private CalculationResultCache resultCache;
     
     @InjectMocks
     private CalculationServiceImpl calculationService;
@@ -83,4 +93,51 @@ public class CalculationServiceTest {
                 )
                 .verifyComplete();
     }
+
+    @Test
+    void processBatchShouldResolvePercentageOnceAndKeepOrder() {
+        CalculationServiceImpl batchService = new CalculationServiceImpl(percentageService,
+                Validation.buildDefaultValidatorFactory().getValidator(), resultCache);
+        when(percentageService.getPercentage()).thenReturn(Mono.just(new BigDecimal("0.1")));
+
+        Flux<CalculationRequest> requests = Flux.just(
+                new CalculationRequest(num1, num2),
+                new CalculationRequest(null, num2),
+                new CalculationRequest(new BigDecimal("1"), new BigDecimal("1")));
+
+        StepVerifier.create(batchService.processBatch(requests))
+                .expectNextMatches(item -> item.getIndex() == 0
+                        && item.getResponse().getResult().compareTo(new BigDecimal("16.50")) == 0)
+                .expectNextMatches(item -> item.getIndex() == 1
+                        && item.getResponse() == null
+                        && item.getErrors().contains("number_1 cannot be null"))
+                .expectNextMatches(item -> item.getIndex() == 2
+                        && item.getResponse().getResult().compareTo(new BigDecimal("2.20")) == 0)
+                .verifyComplete();
+
+        verify(percentageService, times(1)).getPercentage();
+    }
+
+    @Test
+    void calculateWithPercentageShouldUseCachedResultWithoutFetchingPercentage() {
+        when(resultCache.get(num1, num2)).thenReturn(Optional.of(new BigDecimal("16.50")));
+
+        StepVerifier.create(calculationService.calculateWithPercentage(num1, num2))
+                .expectNext(new BigDecimal("16.50"))
+                .verifyComplete();
+
+        verify(percentageService, never()).getPercentage();
+    }
+
+    @Test
+    void calculateWithPercentageShouldStoreComputedResult() {
+        BigDecimal percentage = new BigDecimal("0.1");
+        when(percentageService.getPercentage()).thenReturn(Mono.just(percentage));
+
+        StepVerifier.create(calculationService.calculateWithPercentage(num1, num2))
+                .expectNext(new BigDecimal("16.50"))
+                .verifyComplete();
+
+        verify(resultCache).put(num1, num2, percentage, new BigDecimal("16.50"));
+    }
 }
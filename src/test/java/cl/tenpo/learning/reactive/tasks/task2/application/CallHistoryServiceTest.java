@@ -0,0 +1,205 @@
+package cl.tenpo.learning.reactive.tasks.task2.application;
+
+import cl.tenpo.learning.reactive.tasks.task2.application.port.AuthorizedUserService;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryCursor;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryFilter;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryExportConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryPersistenceConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.PaginationConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.event.CallHistoryKafkaPublisher;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.UnauthorizedException;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.factory.PageableFactory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.CallHistoryRepository;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.CallHistoryWriteBehindQueue;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal.HistoryWriteAheadLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CallHistoryServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123_000_000);
+
+    @Mock
+    private CallHistoryRepository callHistoryRepository;
+
+    @Mock
+    private AuthorizedUserService userService;
+
+    @Mock
+    private CallHistoryWriteBehindQueue writeBehindQueue;
+
+    @Mock
+    private CallHistoryKafkaPublisher kafkaPublisher;
+
+    @Mock
+    private HistoryWriteAheadLog writeAheadLog;
+
+    private HistoryPersistenceConfig persistenceConfig;
+
+    private CallHistoryServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        PaginationConfig paginationConfig = new PaginationConfig();
+        TimeoutConfig timeoutConfig = new TimeoutConfig();
+        timeoutConfig.setDatabaseOperation(Duration.ofSeconds(1));
+        persistenceConfig = new HistoryPersistenceConfig();
+        service = new CallHistoryServiceImpl(callHistoryRepository, new PageableFactory(paginationConfig),
+                timeoutConfig, paginationConfig, userService, persistenceConfig, writeBehindQueue,
+                new HistoryExportConfig(), kafkaPublisher, writeAheadLog);
+    }
+
+    @Test
+    void firstPageReturnsCursorOfLastItemWhenMoreRecordsExist() {
+        when(callHistoryRepository.findPageAfter(eq(HistoryFilter.none()), isNull(), eq(3)))
+                .thenReturn(Flux.just(record("c", 0), record("b", 1), record("a", 2)));
+
+        StepVerifier.create(service.getHistoryPage("", 2, HistoryFilter.none()))
+                .assertNext(page -> {
+                    assertEquals(2, page.getItems().size());
+                    assertEquals(new HistoryCursor(NOW.minusSeconds(1), "b"), HistoryCursor.decode(page.getNextCursor()));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void nextPageStartsAfterCursorAndEndsWithoutCursor() {
+        HistoryCursor cursor = new HistoryCursor(NOW.minusSeconds(1), "b");
+        when(callHistoryRepository.findPageAfter(eq(HistoryFilter.none()), eq(cursor), eq(3)))
+                .thenReturn(Flux.just(record("a", 2)));
+
+        StepVerifier.create(service.getHistoryPage(cursor.encode(), 2, HistoryFilter.none()))
+                .assertNext(page -> {
+                    assertEquals(1, page.getItems().size());
+                    assertNull(page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        StepVerifier.create(service.getHistoryPage("no-es-un-cursor", 2, HistoryFilter.none()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verifyNoInteractions(callHistoryRepository);
+    }
+
+    @Test
+    void unauthorizedUserCannotReadPages() {
+        when(userService.isUserAuthorized("intruso")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(service.getHistoryPageForAuthorizedUser("intruso", "", 2, HistoryFilter.none()))
+                .expectError(UnauthorizedException.class)
+                .verify();
+        verifyNoInteractions(callHistoryRepository);
+    }
+
+    @Test
+    void exportStreamsRangeFromCursorWithConfiguredBatchSize() {
+        LocalDateTime from = NOW.minusDays(1);
+        when(userService.isUserAuthorized("admin")).thenReturn(Mono.just(true));
+        when(callHistoryRepository.streamRange(from, NOW, 500))
+                .thenReturn(Flux.just(record("a", 2), record("b", 1), record("c", 0)));
+
+        StepVerifier.create(service.exportHistoryForAuthorizedUser("admin", from, NOW).flatMapMany(records -> records), 1)
+                .expectNextCount(1)
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void exportRejectsUnauthorizedUserBeforeStreaming() {
+        when(userService.isUserAuthorized("intruso")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(service.exportHistoryForAuthorizedUser("intruso", NOW.minusDays(1), NOW))
+                .expectError(UnauthorizedException.class)
+                .verify();
+        verifyNoInteractions(callHistoryRepository);
+    }
+
+    @Test
+    void exportRejectsEmptyRange() {
+        StepVerifier.create(service.exportHistoryForAuthorizedUser("admin", NOW, NOW))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verifyNoInteractions(userService, callHistoryRepository);
+    }
+
+    @Test
+    void kafkaModePublishesRecordWithoutTouchingMongo() {
+        persistenceConfig.setMode(HistoryPersistenceConfig.Mode.KAFKA);
+        when(kafkaPublisher.enqueue(any(CallHistory.class))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.recordSuccessfulRequest("/calculation", "POST", "admin", "{}", "{}", 12))
+                .assertNext(history -> assertEquals("/calculation", history.getEndpoint()))
+                .verifyComplete();
+        verifyNoInteractions(callHistoryRepository, writeBehindQueue);
+    }
+
+    @Test
+    void syncModeInsertsRecordWithAssignedId() {
+        persistenceConfig.setMode(HistoryPersistenceConfig.Mode.SYNC);
+        when(callHistoryRepository.insert(any(CallHistory.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(service.recordSuccessfulRequest("/calculation", "POST", "admin", "{}", "{}", 12))
+                .assertNext(history -> assertNotNull(history.getId()))
+                .verifyComplete();
+        verify(callHistoryRepository).insert(any(CallHistory.class));
+        verify(callHistoryRepository, never()).save(any(CallHistory.class));
+    }
+
+    @Test
+    void syncModeDivertsFailedWriteToWriteAheadLog() {
+        persistenceConfig.setMode(HistoryPersistenceConfig.Mode.SYNC);
+        when(callHistoryRepository.insert(any(CallHistory.class))).thenReturn(Mono.error(new IllegalStateException("mongo caído")));
+        when(writeAheadLog.absorb(any(CallHistory.class))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.recordFailedRequest("/calculation", "POST", "admin", "{}", "error", 12))
+                .verifyComplete();
+        verify(writeAheadLog).absorb(any(CallHistory.class));
+    }
+
+    @Test
+    void syncModeSkipsMongoWhileStoreIsUnhealthy() {
+        persistenceConfig.setMode(HistoryPersistenceConfig.Mode.SYNC);
+        when(writeAheadLog.shouldAbsorb()).thenReturn(true);
+        when(writeAheadLog.absorb(any(CallHistory.class))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.recordSuccessfulRequest("/calculation", "POST", "admin", "{}", "{}", 12))
+                .expectNextCount(1)
+                .verifyComplete();
+        verifyNoInteractions(callHistoryRepository);
+    }
+
+    private CallHistory record(String id, int secondsAgo) {
+        CallHistory history = CallHistory.createSuccessfulRecord("/calculation", "POST", "{}", "{}");
+        history.setId(id);
+        history.setTimestamp(NOW.minusSeconds(secondsAgo));
+        return history;
+    }
+}
@@ -2,7 +2,15 @@ package cl.tenpo.learning.reactive.tasks.task2.application;
 
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.PercentageCacheService;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.client.ExternalApiClient;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cluster.PushedPercentageHolder;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.coalescing.SingleFlight;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.CircuitBreakerConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.PercentageConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.PercentageDistributionConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.ConcurrencyLimitExceededException;
 import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.ServiceUnavailableException;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,7 +20,11 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,11 +36,25 @@ class PercentageServiceTest {
     @Mock
     private PercentageCacheService cacheService;
     
+    private PercentageConfig percentageConfig;
+
+    private PercentageDistributionConfig distributionConfig;
+
+    private PushedPercentageHolder pushedPercentageHolder;
+
     private ExternalPercentageService service;
 
     @BeforeEach
     void setUp() {
-        service = new ExternalPercentageService(externalApiClient, cacheService);
+        percentageConfig = new PercentageConfig();
+        distributionConfig = new PercentageDistributionConfig();
+        pushedPercentageHolder = new PushedPercentageHolder(distributionConfig);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("percentage", new CircuitBreakerConfig(),
+                event -> { }, meterRegistry, Clock.systemUTC(), error -> false);
+        service = new ExternalPercentageService(externalApiClient, cacheService,
+                new SingleFlight<>("percentage", meterRegistry), circuitBreaker, percentageConfig,
+                pushedPercentageHolder);
     }
 
     @Test
@@ -54,6 +80,19 @@ class PercentageServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void testLimiterRejectionFallsBackToCache() {
+        BigDecimal cachedValue = BigDecimal.valueOf(0.15);
+        when(externalApiClient.fetchPercentage())
+                .thenReturn(Mono.error(new ConcurrencyLimitExceededException("Límite de concurrencia alcanzado")));
+        when(cacheService.getCachedPercentage()).thenReturn(Mono.just(cachedValue));
+
+        StepVerifier.withVirtualTime(() -> service.getPercentage())
+                .expectNext(cachedValue)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
     @Test
     void testServiceErrorWhenNoCache() {
         when(externalApiClient.fetchPercentage()).thenReturn(Mono.error(new RuntimeException("API Error")));
@@ -63,4 +102,70 @@ class PercentageServiceTest {
                 .expectError(ServiceUnavailableException.class)
                 .verify();
     }
+
+    @Test
+    void testStaleWhileRevalidateAnswersFromCacheAndRefreshes() {
+        percentageConfig.setFreshnessPolicy(PercentageConfig.FreshnessPolicy.STALE_WHILE_REVALIDATE);
+        BigDecimal cachedValue = BigDecimal.valueOf(0.15);
+        BigDecimal freshValue = BigDecimal.valueOf(0.20);
+        when(cacheService.getCachedPercentage()).thenReturn(Mono.just(cachedValue));
+        when(externalApiClient.fetchPercentage()).thenReturn(Mono.just(freshValue));
+        when(cacheService.cachePercentage(freshValue)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.getPercentage())
+                .expectNext(cachedValue)
+                .verifyComplete();
+
+        StepVerifier.create(service.getPercentage())
+                .expectNext(freshValue)
+                .verifyComplete();
+        verify(externalApiClient, times(1)).fetchPercentage();
+    }
+
+    @Test
+    void testMaxAgeReusesLastKnownValue() {
+        percentageConfig.setFreshnessPolicy(PercentageConfig.FreshnessPolicy.MAX_AGE);
+        BigDecimal expectedValue = BigDecimal.valueOf(0.25);
+        when(externalApiClient.fetchPercentage()).thenReturn(Mono.just(expectedValue));
+        when(cacheService.cachePercentage(expectedValue)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.getPercentage())
+                .expectNext(expectedValue)
+                .verifyComplete();
+        StepVerifier.create(service.getPercentage())
+                .expectNext(expectedValue)
+                .verifyComplete();
+
+        verify(externalApiClient, times(1)).fetchPercentage();
+    }
+
+    @Test
+    void testPushModeUsesDistributedValueWithoutCallingExternalApi() {
+        distributionConfig.setMode(PercentageDistributionConfig.Mode.PUSH);
+        BigDecimal pushedValue = BigDecimal.valueOf(0.12);
+        pushedPercentageHolder.update(pushedValue);
+
+        StepVerifier.create(service.getPercentage())
+                .expectNext(pushedValue)
+                .verifyComplete();
+
+        verify(externalApiClient, times(0)).fetchPercentage();
+    }
+
+    @Test
+    void testPushModeFallsBackToPullWhenPushedValueIsStale() {
+        distributionConfig.setMode(PercentageDistributionConfig.Mode.PUSH);
+        // Sin margen: el valor recibido ya superó stale-after, como cuando el líder dejó de publicar
+        distributionConfig.setStaleAfter(Duration.ZERO);
+        pushedPercentageHolder.update(BigDecimal.valueOf(0.12));
+        BigDecimal pulledValue = BigDecimal.valueOf(0.3);
+        when(externalApiClient.fetchPercentage()).thenReturn(Mono.just(pulledValue));
+        when(cacheService.cachePercentage(pulledValue)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.getPercentage())
+                .expectNext(pulledValue)
+                .verifyComplete();
+
+        verify(externalApiClient, times(1)).fetchPercentage();
+    }
 }
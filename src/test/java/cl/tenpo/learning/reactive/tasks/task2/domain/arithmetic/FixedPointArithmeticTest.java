@@ -0,0 +1,92 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.arithmetic;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FixedPointArithmeticTest {
+
+    private static final int SAMPLES = 20_000;
+
+    @RepeatedTest(5)
+    void roundedResultIsIdenticalToBigDecimal() {
+        SplittableRandom random = new SplittableRandom();
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal number1 = randomDecimal(random);
+            BigDecimal number2 = randomDecimal(random);
+            BigDecimal percentage = randomDecimal(random);
+
+            // equals compara valor y escala: el resultado debe ser idéntico, no sólo numéricamente igual
+            assertEquals(FixedPointArithmetic.applyPercentageSlow(number1, number2, percentage),
+                    FixedPointArithmetic.applyPercentage(number1, number2, percentage),
+                    () -> number1 + " + " + number2 + " @ " + percentage);
+        }
+    }
+
+    @RepeatedTest(5)
+    void exactResultIsIdenticalToBigDecimal() {
+        SplittableRandom random = new SplittableRandom();
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal number1 = randomDecimal(random);
+            BigDecimal number2 = randomDecimal(random);
+            BigDecimal percentage = randomDecimal(random);
+
+            assertEquals(FixedPointArithmetic.applyPercentageExactSlow(number1, number2, percentage),
+                    FixedPointArithmetic.applyPercentageExact(number1, number2, percentage),
+                    () -> number1 + " + " + number2 + " @ " + percentage);
+        }
+    }
+
+    @Test
+    void halfUpTiesRoundAwayFromZero() {
+        assertEquals(new BigDecimal("1.13"),
+                FixedPointArithmetic.applyPercentage(new BigDecimal("0.5"), new BigDecimal("0.625"), BigDecimal.ZERO));
+        assertEquals(new BigDecimal("-1.13"),
+                FixedPointArithmetic.applyPercentage(new BigDecimal("-0.5"), new BigDecimal("-0.625"), BigDecimal.ZERO));
+    }
+
+    @Test
+    void overflowAndNegativeScaleFallBackToBigDecimal() {
+        BigDecimal huge = new BigDecimal(Long.MAX_VALUE).add(BigDecimal.ONE);
+        BigDecimal big = new BigDecimal("900000000000000000");
+        BigDecimal negativeScale = new BigDecimal("1E+3");
+
+        assertEquals(FixedPointArithmetic.applyPercentageSlow(huge, BigDecimal.ONE, new BigDecimal("0.1")),
+                FixedPointArithmetic.applyPercentage(huge, BigDecimal.ONE, new BigDecimal("0.1")));
+        assertEquals(FixedPointArithmetic.applyPercentageSlow(big, big, new BigDecimal("0.15")),
+                FixedPointArithmetic.applyPercentage(big, big, new BigDecimal("0.15")));
+        assertEquals(FixedPointArithmetic.applyPercentageExactSlow(negativeScale, BigDecimal.ONE, new BigDecimal("0.1")),
+                FixedPointArithmetic.applyPercentageExact(negativeScale, BigDecimal.ONE, new BigDecimal("0.1")));
+    }
+
+    @Test
+    void unscaledIsExactUpToFifteenDigits() {
+        long[] values = {0, 1, -1, 16, 17, 123_456_789_012_345L, 999_999_999_999_998L, 999_999_999_999_999L};
+        for (int scale = 0; scale <= 18; scale++) {
+            for (long value : values) {
+                assertEquals(value, FixedPointArithmetic.unscaled(BigDecimal.valueOf(value, scale)));
+                assertEquals(-value, FixedPointArithmetic.unscaled(BigDecimal.valueOf(-value, scale)));
+            }
+        }
+    }
+
+    /**
+     * Mezcla valores típicos (pocos decimales), bordes de precisión y escalas negativas.
+     */
+    private static BigDecimal randomDecimal(SplittableRandom random) {
+        int shape = random.nextInt(10);
+        if (shape == 0) {
+            return new BigDecimal(new BigInteger(90, new java.util.Random(random.nextLong())), random.nextInt(-3, 25));
+        }
+        if (shape == 1) {
+            return BigDecimal.valueOf(random.nextLong(), random.nextInt(-2, 20));
+        }
+        long unscaled = random.nextLong(-10_000_000L, 10_000_000L);
+        return BigDecimal.valueOf(unscaled, random.nextInt(0, 6));
+    }
+}
@@ -0,0 +1,50 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryFilterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 24, 10, 0);
+
+    @Test
+    void blankValuesDoNotFilter() {
+        HistoryFilter filter = new HistoryFilter(" ", "", null, "\t", null, null);
+
+        assertNull(filter.endpoint());
+        assertNull(filter.method());
+        assertNull(filter.username());
+        assertTrue(filter.isEmpty());
+    }
+
+    @Test
+    void valuesAreTrimmedAndMethodUpperCased() {
+        HistoryFilter filter = new HistoryFilter(" /calculation ", " post ", true, " admin ", null, null);
+
+        assertEquals("/calculation", filter.endpoint());
+        assertEquals("POST", filter.method());
+        assertEquals("admin", filter.username());
+    }
+
+    @Test
+    void rangeMustBeIncreasing() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new HistoryFilter(null, null, null, null, NOW, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> new HistoryFilter(null, null, null, null, NOW, NOW.minusMinutes(1)));
+    }
+
+    @Test
+    void openRangeIsAccepted() {
+        HistoryFilter filter = new HistoryFilter(null, null, null, null, NOW, null);
+
+        assertEquals(NOW, filter.from());
+        assertNull(filter.to());
+    }
+}
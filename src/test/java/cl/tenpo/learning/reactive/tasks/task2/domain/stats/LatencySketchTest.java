@@ -0,0 +1,57 @@
+package cl.tenpo.learning.reactive.tasks.task2.domain.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencySketchTest {
+
+    private static final double ACCURACY = 0.02;
+
+    @Test
+    void quantilesStayWithinRelativeAccuracy() {
+        Random random = new Random(42);
+        long[] values = new long[50_000];
+        LatencySketch sketch = new LatencySketch(ACCURACY);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1 + (long) Math.exp(random.nextDouble() * 14);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[]{0.5, 0.9, 0.95, 0.99}) {
+            long exact = values[(int) Math.floor(q * (values.length - 1))];
+            double estimate = sketch.quantile(q);
+            assertTrue(Math.abs(estimate - exact) <= exact * (ACCURACY + 1e-6),
+                    "q=" + q + " exacto=" + exact + " estimado=" + estimate);
+        }
+    }
+
+    @Test
+    void mergedSketchEqualsSketchOfAllValues() {
+        LatencySketch first = new LatencySketch(ACCURACY);
+        LatencySketch second = new LatencySketch(ACCURACY);
+        LatencySketch all = new LatencySketch(ACCURACY);
+        for (long value = 1; value <= 10_000; value++) {
+            (value % 2 == 0 ? first : second).add(value);
+            all.add(value);
+        }
+
+        first.merge(second);
+
+        assertEquals(all.count(), first.count());
+        assertEquals(all.buckets(), first.buckets());
+        assertEquals(all.quantile(0.99), first.quantile(0.99));
+    }
+
+    @Test
+    void emptySketchAndInvalidAccuracy() {
+        assertEquals(0, new LatencySketch(ACCURACY).quantile(0.5));
+        assertThrows(IllegalArgumentException.class, () -> new LatencySketch(0));
+    }
+}
@@ -0,0 +1,76 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.CalculationResultCacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalculationResultCacheTest {
+
+    private final BigDecimal num1 = new BigDecimal("10");
+    private final BigDecimal num2 = new BigDecimal("5");
+
+    private SimpleMeterRegistry meterRegistry;
+    private PercentageVersionTracker versionTracker;
+    private CalculationResultCache resultCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        versionTracker = new PercentageVersionTracker(meterRegistry);
+        CalculationResultCacheConfig config = new CalculationResultCacheConfig();
+        config.setEnabled(true);
+        resultCache = new CalculationResultCache(config, versionTracker, meterRegistry);
+    }
+
+    @Test
+    void returnsResultStoredForCurrentVersion() {
+        versionTracker.record(new BigDecimal("0.10"));
+        resultCache.put(num1, num2, new BigDecimal("0.1"), new BigDecimal("16.50"));
+
+        assertEquals(Optional.of(new BigDecimal("16.50")), resultCache.get(num1, num2));
+    }
+
+    @Test
+    void newPercentageValueInvalidatesPreviousResults() {
+        versionTracker.record(new BigDecimal("0.10"));
+        resultCache.put(num1, num2, new BigDecimal("0.10"), new BigDecimal("16.50"));
+
+        versionTracker.record(new BigDecimal("0.20"));
+
+        assertTrue(resultCache.get(num1, num2).isEmpty());
+        assertEquals(2, versionTracker.current().orElseThrow().version());
+    }
+
+    @Test
+    void samePercentageValueKeepsVersion() {
+        versionTracker.record(new BigDecimal("0.10"));
+        versionTracker.record(new BigDecimal("0.1"));
+
+        assertEquals(1, versionTracker.current().orElseThrow().version());
+    }
+
+    @Test
+    void ignoresResultsComputedWithOutdatedPercentage() {
+        versionTracker.record(new BigDecimal("0.20"));
+        resultCache.put(num1, num2, new BigDecimal("0.10"), new BigDecimal("16.50"));
+
+        assertTrue(resultCache.get(num1, num2).isEmpty());
+    }
+
+    @Test
+    void exposesHitMetrics() {
+        versionTracker.record(new BigDecimal("0.10"));
+        resultCache.put(num1, num2, new BigDecimal("0.10"), new BigDecimal("16.50"));
+        resultCache.get(num1, num2);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "calculation-results").tag("result", "hit")
+                .functionCounter().count());
+    }
+}
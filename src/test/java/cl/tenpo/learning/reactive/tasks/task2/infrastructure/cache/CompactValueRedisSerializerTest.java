@@ -0,0 +1,64 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactValueRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(new ObjectMapper());
+    private final CompactValueRedisSerializer compact = new CompactValueRedisSerializer(json, true);
+    private final CompactValueRedisSerializer legacy = new CompactValueRedisSerializer(json, false);
+
+    @Test
+    void bigDecimalRoundTripKeepsScale() {
+        BigDecimal value = new BigDecimal("-12345678901234567890.1230");
+
+        byte[] bytes = compact.serialize(value);
+
+        assertEquals(CompactValueRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(value, compact.deserialize(bytes));
+        assertEquals(4, ((BigDecimal) compact.deserialize(bytes)).scale());
+    }
+
+    @Test
+    void binaryPayloadIsSmallerThanJson() {
+        BigDecimal value = new BigDecimal("10.5");
+
+        assertTrue(compact.serialize(value).length < json.serialize(value).length);
+    }
+
+    @Test
+    void otherHotValuesRoundTrip() {
+        assertEquals(42L, compact.deserialize(compact.serialize(42L)));
+        assertEquals(7, compact.deserialize(compact.serialize(7)));
+        assertEquals(true, compact.deserialize(compact.serialize(true)));
+        assertEquals("ñandú", compact.deserialize(compact.serialize("ñandú")));
+    }
+
+    @Test
+    void readsExistingJsonEntries() {
+        byte[] jsonBytes = json.serialize(new BigDecimal("10.5"));
+
+        assertEquals(new BigDecimal("10.5"), PercentageCacheService.toBigDecimal(compact.deserialize(jsonBytes)));
+    }
+
+    @Test
+    void jsonWriterStillReadsBinaryEntries() {
+        byte[] bytes = compact.serialize(new BigDecimal("10.5"));
+
+        assertEquals(new BigDecimal("10.5"), legacy.deserialize(bytes));
+    }
+
+    @Test
+    void emptyPayloadIsNull() {
+        assertNull(compact.deserialize(new byte[0]));
+        assertNull(compact.deserialize(null));
+    }
+}
@@ -0,0 +1,126 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.L1CacheConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.RedisConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PercentageCacheServiceTest {
+
+    private static final Duration L1_TTL = Duration.ofSeconds(30);
+
+    @Mock
+    private RedisTemplateSelector redisTemplateSelector;
+
+    @Mock
+    private ReactiveRedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, Object> valueOperations;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private Cache<String, BigDecimal> l1Cache;
+
+    private PercentageCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplateSelector.forKey(RedisConfig.PERCENTAGE_KEY)).thenReturn(redisTemplate);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        TimeoutConfig timeoutConfig = new TimeoutConfig();
+        timeoutConfig.setCacheOperation(Duration.ofSeconds(1));
+        L1CacheConfig l1Config = new L1CacheConfig();
+        l1Config.setTtl(L1_TTL);
+        l1Cache = l1Config.buildPercentageCache(nanos::get);
+        cacheService = new PercentageCacheService(redisTemplateSelector, timeoutConfig, l1Cache,
+                new PercentageVersionTracker(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void l1HitDoesNotReachRedis() {
+        l1Cache.put(RedisConfig.PERCENTAGE_KEY, new BigDecimal("0.10"));
+
+        StepVerifier.create(cacheService.getCachedPercentage())
+                .expectNext(new BigDecimal("0.10"))
+                .verifyComplete();
+
+        verify(valueOperations, never()).get(any());
+    }
+
+    @Test
+    void l1MissFallsThroughToRedisAndPopulatesL1() {
+        when(valueOperations.get(RedisConfig.PERCENTAGE_KEY)).thenReturn(Mono.just(new BigDecimal("0.15")));
+
+        StepVerifier.create(cacheService.getCachedPercentage())
+                .expectNext(new BigDecimal("0.15"))
+                .verifyComplete();
+        StepVerifier.create(cacheService.getCachedPercentage())
+                .expectNext(new BigDecimal("0.15"))
+                .verifyComplete();
+
+        assertEquals(new BigDecimal("0.15"), l1Cache.getIfPresent(RedisConfig.PERCENTAGE_KEY));
+        verify(valueOperations, times(1)).get(RedisConfig.PERCENTAGE_KEY);
+    }
+
+    @Test
+    void expiredL1EntryIsReloadedFromRedis() {
+        l1Cache.put(RedisConfig.PERCENTAGE_KEY, new BigDecimal("0.10"));
+        when(valueOperations.get(RedisConfig.PERCENTAGE_KEY)).thenReturn(Mono.just(new BigDecimal("0.20")));
+
+        nanos.addAndGet(L1_TTL.plusMillis(1).toNanos());
+
+        assertNull(l1Cache.getIfPresent(RedisConfig.PERCENTAGE_KEY));
+        StepVerifier.create(cacheService.getCachedPercentage())
+                .expectNext(new BigDecimal("0.20"))
+                .verifyComplete();
+        verify(valueOperations).get(RedisConfig.PERCENTAGE_KEY);
+    }
+
+    @Test
+    void redisErrorOnMissIsEmptyAndLeavesL1Untouched() {
+        when(valueOperations.get(RedisConfig.PERCENTAGE_KEY)).thenReturn(Mono.error(new IllegalStateException("down")));
+
+        StepVerifier.create(cacheService.getCachedPercentage())
+                .verifyComplete();
+
+        assertNull(l1Cache.getIfPresent(RedisConfig.PERCENTAGE_KEY));
+    }
+
+    @Test
+    void cachingWritesBothTiers() {
+        when(valueOperations.set(eq(RedisConfig.PERCENTAGE_KEY), any(), eq(RedisConfig.CACHE_TTL)))
+                .thenReturn(Mono.just(true));
+
+        StepVerifier.create(cacheService.cachePercentage(new BigDecimal("0.25")))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertEquals(new BigDecimal("0.25"), l1Cache.getIfPresent(RedisConfig.PERCENTAGE_KEY));
+    }
+}
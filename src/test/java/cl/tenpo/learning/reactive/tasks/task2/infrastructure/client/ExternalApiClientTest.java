@@ -0,0 +1,74 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.client;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.ConcurrencyLimitConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HedgingConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.ConcurrencyLimitExceededException;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.retry.BackoffRetryStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class ExternalApiClientTest {
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private ExternalApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    exchanges.incrementAndGet();
+                    return Mono.never();
+                })
+                .build();
+        TimeoutConfig timeoutConfig = new TimeoutConfig();
+        timeoutConfig.setExternalApi(Duration.ofSeconds(5));
+        BackoffRetryStrategy retryStrategy = new BackoffRetryStrategy(mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(retryStrategy, "maxAttempts", 3L);
+        ReflectionTestUtils.setField(retryStrategy, "initialBackoff", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(retryStrategy, "maxBackoff", Duration.ofSeconds(1));
+        HedgingConfig hedgingConfig = new HedgingConfig();
+        hedgingConfig.setEnabled(true);
+        hedgingConfig.setDelay(Duration.ofMillis(300));
+        ConcurrencyLimitConfig limitConfig = new ConcurrencyLimitConfig();
+        limitConfig.setInitialLimit(1);
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(limitConfig, meterRegistry);
+        client = new ExternalApiClient(webClient, timeoutConfig, retryStrategy,
+                new HedgedRequestExecutor(hedgingConfig, meterRegistry), concurrencyLimiter);
+        ReflectionTestUtils.setField(client, "percentagePath", "http://external/percentage");
+    }
+
+    @Test
+    void limiterRejectionFailsImmediatelyWithoutHedgeOrRetry() {
+        Sinks.One<BigDecimal> slowCall = Sinks.one();
+        Disposable inFlight = concurrencyLimiter.execute(slowCall::asMono).subscribe();
+
+        StepVerifier.withVirtualTime(() -> client.fetchPercentage())
+                .expectError(ConcurrencyLimitExceededException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(0, exchanges.get());
+        assertEquals(0.0, meterRegistry.get("hedging.hedges").tag("result", "fired").counter().count());
+        inFlight.dispose();
+    }
+}
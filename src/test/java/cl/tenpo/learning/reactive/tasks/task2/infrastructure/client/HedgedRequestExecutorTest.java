@@ -0,0 +1,127 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.client;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HedgingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HedgedRequestExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HedgingConfig hedgingConfig;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hedgingConfig = new HedgingConfig();
+        hedgingConfig.setEnabled(true);
+        hedgingConfig.setDelay(Duration.ofMillis(300));
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndFastestResponseWins() {
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(hedgingConfig, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> executor.execute(() -> attempts.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofSeconds(10)).thenReturn(BigDecimal.ONE)
+                        : Mono.just(BigDecimal.TEN)))
+                .thenAwait(Duration.ofMillis(300))
+                .expectNext(BigDecimal.TEN)
+                .verifyComplete();
+
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, meterRegistry.get("hedging.hedges").tag("result", "won").counter().count());
+    }
+
+    @Test
+    void fastPrimaryDoesNotFireHedge() {
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(hedgingConfig, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> executor.execute(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.just(BigDecimal.ONE);
+                }))
+                .expectNext(BigDecimal.ONE)
+                .verifyComplete();
+
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, meterRegistry.get("hedging.hedges").tag("result", "fired").counter().count());
+    }
+
+    @Test
+    void exhaustedBudgetSkipsHedge() {
+        hedgingConfig.setBudgetBurst(0);
+        hedgingConfig.setBudgetRatio(0.0);
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(hedgingConfig, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> executor.execute(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.delay(Duration.ofSeconds(1)).thenReturn(BigDecimal.ONE);
+                }))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(BigDecimal.ONE)
+                .verifyComplete();
+
+        assertEquals(1, attempts.get());
+        assertEquals(1.0, meterRegistry.get("hedging.hedges").tag("result", "budget_exhausted").counter().count());
+    }
+
+    @Test
+    void primaryErrorDoesNotCancelHedgeInFlight() {
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(hedgingConfig, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> executor.execute(() -> attempts.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofMillis(400)).then(Mono.<BigDecimal>error(new IllegalStateException("primario")))
+                        : Mono.delay(Duration.ofMillis(500)).thenReturn(BigDecimal.TEN)))
+                .thenAwait(Duration.ofMillis(800))
+                .expectNext(BigDecimal.TEN)
+                .verifyComplete();
+
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, meterRegistry.get("hedging.hedges").tag("result", "won").counter().count());
+    }
+
+    @Test
+    void errorSurfacesOnlyWhenBothAttemptsFail() {
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(hedgingConfig, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> executor.execute(() -> attempts.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofMillis(400)).then(Mono.<BigDecimal>error(new IllegalStateException("primario")))
+                        : Mono.delay(Duration.ofMillis(500)).then(Mono.<BigDecimal>error(new IllegalArgumentException("hedge")))))
+                .thenAwait(Duration.ofMillis(800))
+                .expectErrorMatches(error -> error instanceof IllegalStateException && "primario".equals(error.getMessage()))
+                .verify();
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void primaryErrorBeforeDelaySurfacesImmediatelyWithoutHedge() {
+        HedgedRequestExecutor executor = new HedgedRequestExecutor(hedgingConfig, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> executor.execute(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.<BigDecimal>error(new IllegalStateException("primario"));
+                }))
+                .expectErrorMessage("primario")
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, meterRegistry.get("hedging.hedges").tag("result", "fired").counter().count());
+        assertEquals(0.0, meterRegistry.get("hedging.hedges").tag("result", "budget_exhausted").counter().count());
+    }
+}
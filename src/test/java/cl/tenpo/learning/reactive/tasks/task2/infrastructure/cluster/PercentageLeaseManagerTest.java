@@ -0,0 +1,113 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cluster;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.PercentageDistributionConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import redis.embedded.RedisServer;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ejecuta los scripts Lua del lease contra un Redis embebido: dos managers con la misma
+ * configuración representan dos nodos del cluster.
+ */
+class PercentageLeaseManagerTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveStringRedisTemplate stringRedisTemplate;
+
+    private PercentageDistributionConfig distributionConfig;
+    private PercentageLeaseManager firstNode;
+    private PercentageLeaseManager secondNode;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory("localhost", port);
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        distributionConfig = new PercentageDistributionConfig();
+        distributionConfig.setLeaseTtl(Duration.ofSeconds(5));
+        stringRedisTemplate.delete(distributionConfig.getLeaseKey()).block();
+        firstNode = new PercentageLeaseManager(stringRedisTemplate, distributionConfig);
+        secondNode = new PercentageLeaseManager(stringRedisTemplate, distributionConfig);
+    }
+
+    @Test
+    void onlyOneNodeAcquiresTheLease() {
+        StepVerifier.create(firstNode.tryAcquireOrRenew()).expectNext(true).verifyComplete();
+        StepVerifier.create(secondNode.tryAcquireOrRenew()).expectNext(false).verifyComplete();
+
+        StepVerifier.create(stringRedisTemplate.opsForValue().get(distributionConfig.getLeaseKey()))
+                .expectNext(firstNode.getNodeId())
+                .verifyComplete();
+    }
+
+    @Test
+    void ownerRenewalExtendsTheTtl() {
+        firstNode.tryAcquireOrRenew().block();
+        stringRedisTemplate.expire(distributionConfig.getLeaseKey(), Duration.ofMillis(500)).block();
+
+        StepVerifier.create(firstNode.tryAcquireOrRenew()).expectNext(true).verifyComplete();
+
+        Duration ttl = stringRedisTemplate.getExpire(distributionConfig.getLeaseKey()).block();
+        assertTrue(ttl.compareTo(Duration.ofSeconds(1)) > 0, "TTL renovado: " + ttl);
+    }
+
+    @Test
+    void onlyTheOwnerReleasesTheLease() {
+        firstNode.tryAcquireOrRenew().block();
+
+        StepVerifier.create(secondNode.release()).expectNext(false).verifyComplete();
+        StepVerifier.create(firstNode.release()).expectNext(true).verifyComplete();
+        StepVerifier.create(stringRedisTemplate.hasKey(distributionConfig.getLeaseKey()))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void otherNodeTakesOverAfterRelease() {
+        firstNode.tryAcquireOrRenew().block();
+        firstNode.release().block();
+
+        StepVerifier.create(secondNode.tryAcquireOrRenew()).expectNext(true).verifyComplete();
+        StepVerifier.create(firstNode.tryAcquireOrRenew()).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void otherNodeTakesOverWhenTheLeaderStopsRenewing() throws InterruptedException {
+        distributionConfig.setLeaseTtl(Duration.ofMillis(200));
+        firstNode.tryAcquireOrRenew().block();
+        StepVerifier.create(secondNode.tryAcquireOrRenew()).expectNext(false).verifyComplete();
+
+        Thread.sleep(400);
+
+        StepVerifier.create(secondNode.tryAcquireOrRenew()).expectNext(true).verifyComplete();
+        StepVerifier.create(firstNode.tryAcquireOrRenew()).expectNext(false).verifyComplete();
+    }
+}
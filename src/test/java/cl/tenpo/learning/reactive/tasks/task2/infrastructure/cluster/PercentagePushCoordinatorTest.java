@@ -0,0 +1,164 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.cluster;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.PercentageCacheService;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.cache.PercentageVersionTracker;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.client.ExternalApiClient;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.CircuitBreakerConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.PercentageDistributionConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PercentagePushCoordinatorTest {
+
+    private static final BigDecimal PERCENTAGE = new BigDecimal("0.15");
+
+    @Mock
+    private PercentageLeaseManager leaseManager;
+
+    @Mock
+    private ExternalApiClient externalApiClient;
+
+    @Mock
+    private PercentageCacheService cacheService;
+
+    @Mock
+    private ReactiveStringRedisTemplate stringRedisTemplate;
+
+    private PercentageDistributionConfig distributionConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private PercentagePushCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        distributionConfig = new PercentageDistributionConfig();
+        distributionConfig.setMode(PercentageDistributionConfig.Mode.PUSH);
+        distributionConfig.setPollInterval(Duration.ofSeconds(5));
+        distributionConfig.setLeaseTtl(Duration.ofSeconds(15));
+        meterRegistry = new SimpleMeterRegistry();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("percentage", new CircuitBreakerConfig(),
+                event -> { }, meterRegistry, Clock.systemUTC(), error -> false);
+        coordinator = new PercentagePushCoordinator(leaseManager, new PushedPercentageHolder(distributionConfig),
+                externalApiClient, circuitBreaker, cacheService, new PercentageVersionTracker(meterRegistry),
+                stringRedisTemplate, distributionConfig, meterRegistry);
+    }
+
+    @Test
+    void leadershipFollowsLeaseRenewals() {
+        when(leaseManager.tryAcquireOrRenew()).thenReturn(Mono.just(false), Mono.just(true), Mono.just(false));
+
+        StepVerifier.withVirtualTime(() -> coordinator.leaseRenewals().take(3))
+                .expectNext(false)
+                .then(() -> assertEquals(0.0, leaderGauge()))
+                .thenAwait(Duration.ofSeconds(5))
+                .expectNext(true)
+                .then(() -> assertEquals(1.0, leaderGauge()))
+                .thenAwait(Duration.ofSeconds(5))
+                .expectNext(false)
+                .then(() -> assertEquals(0.0, leaderGauge()))
+                .verifyComplete();
+    }
+
+    @Test
+    void renewalWithoutAnswerCountsAsLostLease() {
+        when(leaseManager.tryAcquireOrRenew()).thenReturn(Mono.just(true), Mono.never());
+
+        StepVerifier.withVirtualTime(() -> coordinator.leaseRenewals().take(2))
+                .expectNext(true)
+                .thenAwait(Duration.ofSeconds(10))
+                .expectNext(false)
+                .verifyComplete();
+
+        assertEquals(0.0, leaderGauge());
+    }
+
+    @Test
+    void leaseKeepsRenewingWhileFetchOutlastsLeaseTtl() {
+        when(leaseManager.tryAcquireOrRenew()).thenReturn(Mono.just(true));
+        when(externalApiClient.fetchPercentage()).thenReturn(Mono.never());
+
+        StepVerifier.withVirtualTime(() -> Flux.merge(coordinator.leaseRenewals().then(), coordinator.publications().then()))
+                .thenAwait(Duration.ofSeconds(30))
+                .then(() -> verify(leaseManager, times(7)).tryAcquireOrRenew())
+                .thenCancel()
+                .verify();
+
+        assertEquals(1.0, leaderGauge());
+    }
+
+    @Test
+    void slowFetchesDropTicksInsteadOfEndingThePollLoop() {
+        when(leaseManager.tryAcquireOrRenew()).thenReturn(Mono.just(true));
+        when(externalApiClient.fetchPercentage())
+                .thenAnswer(invocation -> Mono.delay(Duration.ofSeconds(12)).thenReturn(PERCENTAGE));
+        when(cacheService.cachePercentage(PERCENTAGE)).thenReturn(Mono.just(true));
+        when(stringRedisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(2L));
+
+        StepVerifier.withVirtualTime(() -> coordinator.leaseRenewals().take(1).thenMany(coordinator.publications()))
+                .thenAwait(Duration.ofSeconds(61))
+                .expectNextCount(5)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void fetchFinishedAfterLosingLeaseIsNotPublished() {
+        // Renovación cada 4 s: el lease se pierde a mitad del fetch y antes del siguiente tick de consulta
+        distributionConfig.setLeaseTtl(Duration.ofSeconds(12));
+        when(leaseManager.tryAcquireOrRenew()).thenReturn(Mono.just(true), Mono.just(false));
+        when(externalApiClient.fetchPercentage())
+                .thenAnswer(invocation -> Mono.delay(Duration.ofSeconds(7)).thenReturn(PERCENTAGE));
+
+        StepVerifier.withVirtualTime(() -> Flux.merge(coordinator.leaseRenewals().then(), coordinator.publications().then()))
+                .thenAwait(Duration.ofSeconds(8))
+                .thenCancel()
+                .verify();
+
+        verify(externalApiClient, times(1)).fetchPercentage();
+        verify(cacheService, never()).cachePercentage(PERCENTAGE);
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void followerTakesOverPublishingOnceTheLeaseIsFree() {
+        when(leaseManager.tryAcquireOrRenew()).thenReturn(Mono.just(false), Mono.just(false), Mono.just(true));
+        when(externalApiClient.fetchPercentage()).thenReturn(Mono.just(PERCENTAGE));
+        when(cacheService.cachePercentage(PERCENTAGE)).thenReturn(Mono.just(true));
+        when(stringRedisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(2L));
+
+        StepVerifier.withVirtualTime(() -> Flux.merge(coordinator.leaseRenewals().then(), coordinator.publications().then()))
+                .thenAwait(Duration.ofSeconds(9))
+                .then(() -> verify(externalApiClient, never()).fetchPercentage())
+                .thenAwait(Duration.ofSeconds(11))
+                .then(() -> verify(stringRedisTemplate, atLeastOnce()).convertAndSend(anyString(), anyString()))
+                .thenCancel()
+                .verify();
+
+        assertEquals(1.0, leaderGauge());
+    }
+
+    private double leaderGauge() {
+        return meterRegistry.get("percentage.push.leader").gauge().value();
+    }
+}
@@ -0,0 +1,73 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<BigDecimal> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+    }
+
+    @Test
+    void concurrentCallersShareOneExecution() {
+        AtomicInteger executions = new AtomicInteger();
+        Sinks.One<BigDecimal> upstream = Sinks.one();
+
+        Mono<BigDecimal> first = singleFlight.execute(() -> {
+            executions.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<BigDecimal> second = singleFlight.execute(() -> {
+            executions.incrementAndGet();
+            return upstream.asMono();
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> upstream.tryEmitValue(BigDecimal.TEN))
+                .expectNextMatches(tuple -> tuple.getT1().equals(BigDecimal.TEN) && tuple.getT2().equals(BigDecimal.TEN))
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+        assertEquals(1.0, meterRegistry.get("singleflight.calls").tag("role", "coalesced").counter().count());
+    }
+
+    @Test
+    void errorIsSharedWithAllCallers() {
+        Sinks.One<BigDecimal> upstream = Sinks.one();
+
+        Mono<BigDecimal> first = singleFlight.execute(upstream::asMono);
+        Mono<BigDecimal> second = singleFlight.execute(upstream::asMono);
+
+        StepVerifier.create(Mono.zipDelayError(first.onErrorReturn(BigDecimal.ONE), second.onErrorReturn(BigDecimal.ONE)))
+                .then(() -> upstream.tryEmitError(new RuntimeException("API Error")))
+                .expectNextMatches(tuple -> tuple.getT1().equals(BigDecimal.ONE) && tuple.getT2().equals(BigDecimal.ONE))
+                .verifyComplete();
+    }
+
+    @Test
+    void newCallAfterCompletionStartsNewExecution() {
+        AtomicInteger executions = new AtomicInteger();
+
+        StepVerifier.create(singleFlight.execute(() -> Mono.fromCallable(() -> BigDecimal.valueOf(executions.incrementAndGet()))))
+                .expectNext(BigDecimal.ONE)
+                .verifyComplete();
+        StepVerifier.create(singleFlight.execute(() -> Mono.fromCallable(() -> BigDecimal.valueOf(executions.incrementAndGet()))))
+                .expectNext(BigDecimal.valueOf(2))
+                .verifyComplete();
+    }
+}
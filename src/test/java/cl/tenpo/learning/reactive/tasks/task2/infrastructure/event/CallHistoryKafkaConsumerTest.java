@@ -0,0 +1,102 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.event;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryKafkaConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryPersistenceConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.kafka.core.reactive.ReactiveKafkaConsumerTemplate;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CallHistoryKafkaConsumerTest {
+
+    @Mock
+    private ReactiveKafkaConsumerTemplate<String, CallHistoryEvent> consumerTemplate;
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveBulkOperations bulkOperations;
+
+    private CallHistoryKafkaConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        TimeoutConfig timeoutConfig = new TimeoutConfig();
+        timeoutConfig.setDatabaseOperation(Duration.ofSeconds(1));
+        consumer = new CallHistoryKafkaConsumer(consumerTemplate, mongoTemplate, new HistoryPersistenceConfig(),
+                new HistoryKafkaConfig(), timeoutConfig, new SimpleMeterRegistry());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CallHistory.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesBatchAndCommitsAfterwardsSkippingUnreadableEvents() {
+        ReceiverOffset first = mock(ReceiverOffset.class);
+        ReceiverOffset unreadable = mock(ReceiverOffset.class);
+        ReceiverOffset last = mock(ReceiverOffset.class);
+        when(last.commit()).thenReturn(Mono.empty());
+        when(bulkOperations.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+
+        StepVerifier.create(consumer.process(List.of(
+                        record(event("a"), 0, first), record(null, 1, unreadable), record(event("b"), 2, last))))
+                .verifyComplete();
+
+        ArgumentCaptor<List<CallHistory>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(inserted.capture());
+        assertEquals(List.of("a", "b"), inserted.getValue().stream().map(CallHistory::getId).toList());
+        verify(first).acknowledge();
+        verify(unreadable).acknowledge();
+        verify(last).commit();
+    }
+
+    @Test
+    void failedWriteDoesNotCommitOffsets() {
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+        when(bulkOperations.execute()).thenReturn(Mono.error(new IllegalStateException("mongo caído")));
+
+        StepVerifier.create(consumer.process(List.of(record(event("a"), 0, offset))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(offset, never()).acknowledge();
+        verify(offset, never()).commit();
+    }
+
+    private static CallHistoryEvent event(String id) {
+        return new CallHistoryEvent(id, LocalDateTime.now(), "/calculation", "POST", "admin", "{}", "{}", null, true, 5L);
+    }
+
+    private static ReceiverRecord<String, CallHistoryEvent> record(CallHistoryEvent event, long offset,
+                                                                   ReceiverOffset receiverOffset) {
+        return new ReceiverRecord<>(new ConsumerRecord<>("CR_CALL_HISTORY", 0, offset, null, event), receiverOffset);
+    }
+}
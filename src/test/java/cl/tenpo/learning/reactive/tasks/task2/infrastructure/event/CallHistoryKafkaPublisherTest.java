@@ -0,0 +1,69 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.event;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryKafkaConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryPersistenceConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.KafkaConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class CallHistoryKafkaPublisherTest {
+
+    @Mock
+    private ReactiveKafkaProducerTemplate<String, CallHistoryEvent> producerTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CallHistoryKafkaPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        HistoryKafkaConfig historyKafkaConfig = new HistoryKafkaConfig();
+        historyKafkaConfig.setQueueCapacity(2);
+        historyKafkaConfig.setLinger(Duration.ofHours(1));
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new CallHistoryKafkaPublisher(producerTemplate, new KafkaConfig(), new HistoryPersistenceConfig(),
+                historyKafkaConfig, meterRegistry);
+    }
+
+    @Test
+    void fullQueueDropsWithoutWaiting() {
+        StepVerifier.create(publisher.enqueue(history("a"))).expectNext(true).verifyComplete();
+        StepVerifier.create(publisher.enqueue(history("b"))).expectNext(true).verifyComplete();
+        StepVerifier.create(publisher.enqueue(history("c"))).expectNext(false).verifyComplete();
+
+        assertEquals(1.0, meterRegistry.counter("history.kafka.published", "result", "dropped").count());
+    }
+
+    @Test
+    void queuedEventsAreDrainedOnNotificationAndRestOnShutdown() {
+        publisher.enqueue(history("a")).block();
+
+        StepVerifier.create(publisher.pendingEvents())
+                .assertNext(event -> assertEquals("a", event.id()))
+                .then(() -> publisher.enqueue(history("b")).block())
+                .assertNext(event -> assertEquals("b", event.id()))
+                .then(() -> {
+                    publisher.shutdown();
+                    publisher.enqueue(history("c")).block();
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(1.0, meterRegistry.counter("history.kafka.published", "result", "dropped").count());
+    }
+
+    private static CallHistory history(String id) {
+        return CallHistory.builder().id(id).endpoint("/calculation").method("POST").successful(true).build();
+    }
+}
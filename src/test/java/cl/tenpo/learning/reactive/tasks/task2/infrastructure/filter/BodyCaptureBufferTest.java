@@ -0,0 +1,86 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.filter;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.BodyCaptureConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BodyCaptureBufferTest {
+
+    private BodyCaptureBufferPool pool;
+
+    @BeforeEach
+    void setUp() {
+        BodyCaptureConfig config = new BodyCaptureConfig();
+        config.setMaxBytes(16);
+        config.setPoolSize(2);
+        pool = new BodyCaptureBufferPool(config);
+    }
+
+    @Test
+    void capturesAllChunksWithoutConsumingThem() {
+        BodyCaptureBuffer capture = pool.newBuffer();
+        DataBuffer first = buffer("{\"a\":");
+        DataBuffer second = buffer("1}");
+
+        capture.append(first);
+        capture.append(second);
+
+        assertEquals("{\"a\":1}", capture.text());
+        assertEquals(5, first.readableByteCount());
+        assertEquals(2, second.readableByteCount());
+    }
+
+    @Test
+    void keepsBoundedPrefixAndMarksTruncation() {
+        BodyCaptureBuffer capture = pool.newBuffer();
+
+        capture.append(buffer("0123456789"));
+        capture.append(buffer("abcdefghij"));
+
+        assertEquals("0123456789abcdef... [truncado, 20 bytes]", capture.text());
+    }
+
+    @Test
+    void truncationDoesNotCutMultiByteCharacters() {
+        BodyCaptureBuffer cutTwoByte = pool.newBuffer();
+        cutTwoByte.append(buffer("Parámetros inválidos"));
+        BodyCaptureBuffer cutThreeByte = pool.newBuffer();
+        cutThreeByte.append(buffer("01234567890123€!"));
+        BodyCaptureBuffer completeAtLimit = pool.newBuffer();
+        completeAtLimit.append(buffer("01234567890123ñ!"));
+
+        assertEquals("Parámetros inv... [truncado, 22 bytes]", cutTwoByte.text());
+        assertEquals("01234567890123... [truncado, 18 bytes]", cutThreeByte.text());
+        assertEquals("01234567890123ñ... [truncado, 17 bytes]", completeAtLimit.text());
+    }
+
+    @Test
+    void releaseReturnsArrayToPoolAndKeepsDecodedText() {
+        BodyCaptureBuffer capture = pool.newBuffer();
+        capture.append(buffer("hola"));
+        String text = capture.text();
+
+        capture.release();
+        capture.release();
+
+        assertSame(text, capture.text());
+        byte[] reused = pool.acquire();
+        assertEquals('h', reused[0]);
+    }
+
+    @Test
+    void emptyBodyDecodesToEmptyText() {
+        assertEquals("", pool.newBuffer().text());
+    }
+
+    private DataBuffer buffer(String content) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
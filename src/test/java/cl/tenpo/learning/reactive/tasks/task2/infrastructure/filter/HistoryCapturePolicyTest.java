@@ -0,0 +1,89 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.filter;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.BodyCaptureConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryCapturePolicyConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryCapturePolicyTest {
+
+    private HistoryCapturePolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        BodyCaptureConfig captureConfig = new BodyCaptureConfig();
+        captureConfig.setMaxBytes(1024);
+        policy = new HistoryCapturePolicy(new HistoryCapturePolicyConfig(), captureConfig);
+    }
+
+    @Test
+    void defaultRulesSkipActuatorAndRecordEverythingElse() {
+        assertTrue(resolve("/actuator/prometheus", HttpMethod.GET).isSkipped());
+        assertTrue(resolve("/swagger-ui.html", HttpMethod.GET).isSkipped());
+
+        HistoryCapturePolicy.RequestPolicy calculation = resolve("/calculation", HttpMethod.POST);
+        assertFalse(calculation.isSkipped());
+        assertTrue(calculation.captureBodies());
+        assertEquals(1024, calculation.maxBodyBytes());
+        assertTrue(calculation.shouldRecord(200));
+        assertTrue(calculation.shouldRecord(503));
+    }
+
+    @Test
+    void firstMatchingRuleWinsPerStatusClass() {
+        policy.update(List.of(
+                new HistoryCapturePolicyConfig.Rule("/calculation/**", List.of("POST"), List.of("2xx"), 0.0, false, null),
+                new HistoryCapturePolicyConfig.Rule("/**", List.of(), List.of(), 1.0, true, 128)));
+
+        HistoryCapturePolicy.RequestPolicy calculation = resolve("/calculation", HttpMethod.POST);
+        assertFalse(calculation.isSkipped());
+        assertFalse(calculation.shouldRecord(200));
+        assertTrue(calculation.shouldRecord(500));
+        assertTrue(calculation.captureBodies(500));
+        assertFalse(calculation.captureBodies(200));
+        assertEquals(128, calculation.maxBodyBytes());
+
+        assertTrue(resolve("/calculation", HttpMethod.GET).shouldRecord(200));
+    }
+
+    @Test
+    void sampleRateKeepsAFractionOfRequests() {
+        policy.update(List.of(
+                new HistoryCapturePolicyConfig.Rule("/history", List.of(), List.of("2xx"), 0.1, true, null)));
+        HistoryCapturePolicy.RequestPolicy history = resolve("/history", HttpMethod.GET);
+
+        int recorded = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (history.shouldRecord(200)) {
+                recorded++;
+            }
+        }
+        assertTrue(recorded > 700 && recorded < 1300, "registrados: " + recorded);
+    }
+
+    @Test
+    void invalidRulesKeepPreviousTable() {
+        List<HistoryCapturePolicyConfig.Rule> previous = policy.currentRules();
+
+        assertThrows(IllegalArgumentException.class, () -> policy.update(List.of(
+                new HistoryCapturePolicyConfig.Rule("/calculation", List.of(), List.of("2yy"), 1.0, true, null))));
+        assertThrows(IllegalArgumentException.class, () -> policy.update(List.of(
+                new HistoryCapturePolicyConfig.Rule("/calculation", List.of(), List.of(), 1.5, true, null))));
+
+        assertEquals(previous, policy.currentRules());
+        assertTrue(resolve("/actuator/health", HttpMethod.GET).isSkipped());
+    }
+
+    private HistoryCapturePolicy.RequestPolicy resolve(String path, HttpMethod method) {
+        return policy.resolve(PathContainer.parsePath(path), method);
+    }
+}
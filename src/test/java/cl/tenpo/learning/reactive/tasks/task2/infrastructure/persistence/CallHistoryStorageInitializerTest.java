@@ -0,0 +1,101 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryStorageConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CallHistoryStorageInitializerTest {
+
+    private static final int QUERY_INDEXES = CallHistoryStorageInitializer.queryIndexes().size();
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveIndexOperations indexOperations;
+
+    private HistoryStorageConfig storageConfig;
+
+    private TimeoutConfig timeoutConfig;
+
+    @BeforeEach
+    void setUp() {
+        storageConfig = new HistoryStorageConfig();
+        timeoutConfig = new TimeoutConfig();
+        timeoutConfig.setDatabaseOperation(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void timeSeriesLayoutCreatesCollectionBeforeIndexes() {
+        storageConfig.setLayout(HistoryStorageConfig.Layout.TIME_SERIES);
+        storageConfig.setRetention(Duration.ofDays(30));
+        when(mongoTemplate.collectionExists("call_history_ts")).thenReturn(Mono.just(false));
+        when(mongoTemplate.createCollection(eq("call_history_ts"), any(CollectionOptions.class))).thenReturn(Mono.empty());
+        when(mongoTemplate.indexOps("call_history_ts")).thenReturn(indexOperations);
+        when(indexOperations.ensureIndex(any())).thenReturn(Mono.just(CallHistoryStorageInitializer.CURSOR_INDEX));
+
+        newInitializer().initialize();
+
+        ArgumentCaptor<CollectionOptions> options = ArgumentCaptor.forClass(CollectionOptions.class);
+        verify(mongoTemplate).createCollection(eq("call_history_ts"), options.capture());
+        CollectionOptions.TimeSeriesOptions timeSeries = options.getValue().getTimeSeriesOptions().orElseThrow();
+        assertEquals("timestamp", timeSeries.getTimeField());
+        assertEquals("endpoint", timeSeries.getMetaField());
+        // En time-series la retención es de la colección: no se crea índice TTL
+        verify(indexOperations, times(1 + QUERY_INDEXES)).ensureIndex(any());
+    }
+
+    @Test
+    void standardLayoutWithRetentionAddsTtlIndexAndUpdatesItWhenExpiryChanged() {
+        storageConfig.setRetention(Duration.ofDays(7));
+        when(mongoTemplate.indexOps("call_history")).thenReturn(indexOperations);
+        when(indexOperations.ensureIndex(any())).thenAnswer(invocation -> {
+            Object name = invocation.<IndexDefinition>getArgument(0).getIndexOptions().get("name");
+            return CallHistoryStorageInitializer.TTL_INDEX.equals(name)
+                    ? Mono.error(new IllegalStateException("IndexOptionsConflict"))
+                    : Mono.just(name);
+        });
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(Mono.just(new Document("ok", 1)));
+
+        newInitializer().initialize();
+
+        ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOperations, times(2 + QUERY_INDEXES)).ensureIndex(indexes.capture());
+        List<IndexDefinition> definitions = indexes.getAllValues();
+        assertEquals(CallHistoryStorageInitializer.CURSOR_INDEX, definitions.get(0).getIndexOptions().get("name"));
+        assertEquals(Duration.ofDays(7).toSeconds(),
+                definitions.get(definitions.size() - 1).getIndexOptions().get("expireAfterSeconds"));
+
+        ArgumentCaptor<Document> command = ArgumentCaptor.forClass(Document.class);
+        verify(mongoTemplate).executeCommand(command.capture());
+        assertEquals("call_history", command.getValue().get("collMod"));
+        verify(mongoTemplate, never()).createCollection(any(String.class), any(CollectionOptions.class));
+    }
+
+    private CallHistoryStorageInitializer newInitializer() {
+        return new CallHistoryStorageInitializer(mongoTemplate, storageConfig, timeoutConfig);
+    }
+}
@@ -0,0 +1,168 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryPersistenceConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal.HistoryWriteAheadLog;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CallHistoryWriteBehindQueueTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveBulkOperations bulkOperations;
+
+    @Mock
+    private HistoryWriteAheadLog writeAheadLog;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HistoryPersistenceConfig config;
+    private TimeoutConfig timeoutConfig;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new HistoryPersistenceConfig();
+        config.setQueueCapacity(4);
+        config.setBatchSize(3);
+        timeoutConfig = new TimeoutConfig();
+        timeoutConfig.setDatabaseOperation(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void dropPolicyDiscardsWhenQueueIsFull() {
+        CallHistoryWriteBehindQueue queue = newQueue();
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(queue.enqueue(record(i))).expectNext(true).verifyComplete();
+        }
+        StepVerifier.create(queue.enqueue(record(4))).expectNext(false).verifyComplete();
+
+        assertEquals(4, queue.size());
+        assertEquals(1.0, meterRegistry.get("history.writebehind.dropped").tag("reason", "overflow").counter().count());
+    }
+
+    @Test
+    void samplePolicyKeepsOnlyAFractionAboveThreshold() {
+        config.setOverflowPolicy(HistoryPersistenceConfig.OverflowPolicy.SAMPLE);
+        config.setSampleThreshold(0.5);
+        config.setSampleRate(0.0);
+        CallHistoryWriteBehindQueue queue = newQueue();
+
+        StepVerifier.create(queue.enqueue(record(0))).expectNext(true).verifyComplete();
+        StepVerifier.create(queue.enqueue(record(1))).expectNext(true).verifyComplete();
+        StepVerifier.create(queue.enqueue(record(2))).expectNext(false).verifyComplete();
+
+        assertEquals(1.0, meterRegistry.get("history.writebehind.dropped").tag("reason", "sampled").counter().count());
+    }
+
+    @Test
+    void blockPolicyGivesUpAfterTimeout() {
+        config.setOverflowPolicy(HistoryPersistenceConfig.OverflowPolicy.BLOCK);
+        config.setBlockTimeout(Duration.ofMillis(50));
+        CallHistoryWriteBehindQueue queue = newQueue();
+        for (int i = 0; i < 4; i++) {
+            queue.enqueue(record(i)).block();
+        }
+
+        StepVerifier.create(queue.enqueue(record(4))).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shutdownFlushesPendingRecordsInBatches() {
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CallHistory.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.just(result));
+        when(result.getInsertedCount()).thenReturn(3, 1);
+        CallHistoryWriteBehindQueue queue = newQueue();
+        for (int i = 0; i < 4; i++) {
+            queue.enqueue(record(i)).block();
+        }
+
+        queue.shutdown();
+
+        ArgumentCaptor<List<CallHistory>> batches = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(2)).insert(batches.capture());
+        assertEquals(3, batches.getAllValues().get(0).size());
+        assertEquals(1, batches.getAllValues().get(1).size());
+        assertEquals(0, queue.size());
+        assertEquals(4.0, meterRegistry.get("history.writebehind.records").tag("result", "written").counter().count());
+    }
+
+    @Test
+    void failedBatchIsDivertedToWriteAheadLog() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CallHistory.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.error(new IllegalStateException("mongo caído")));
+        when(writeAheadLog.absorb(any(CallHistory.class))).thenReturn(Mono.just(true));
+        CallHistoryWriteBehindQueue queue = newQueue();
+        for (int i = 0; i < 2; i++) {
+            queue.enqueue(record(i)).block();
+        }
+
+        queue.shutdown();
+
+        verify(writeAheadLog, times(2)).absorb(any(CallHistory.class));
+        assertEquals(2.0, meterRegistry.get("history.writebehind.records").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void shutdownWaitsForInFlightBatchAndStopsIntake() {
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CallHistory.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.delay(Duration.ofMillis(200)).thenReturn(result));
+        when(result.getInsertedCount()).thenReturn(3);
+        config.setMode(HistoryPersistenceConfig.Mode.WRITE_BEHIND);
+        config.setFlushInterval(Duration.ofMinutes(1));
+        CallHistoryWriteBehindQueue queue = newQueue();
+        queue.start();
+        for (int i = 0; i < 3; i++) {
+            queue.enqueue(record(i)).block();
+        }
+        // El lote completo ya salió de la cola y está en vuelo hacia Mongo
+        assertEquals(0, queue.size());
+
+        queue.shutdown();
+
+        assertEquals(3.0, meterRegistry.get("history.writebehind.records").tag("result", "written").counter().count());
+        StepVerifier.create(queue.enqueue(record(3))).expectNext(false).verifyComplete();
+        assertEquals(1.0, meterRegistry.get("history.writebehind.dropped").tag("reason", "shutdown").counter().count());
+    }
+
+    private CallHistoryWriteBehindQueue newQueue() {
+        return new CallHistoryWriteBehindQueue(mongoTemplate, config, timeoutConfig, writeAheadLog, meterRegistry);
+    }
+
+    private CallHistory record(int index) {
+        return CallHistory.createSuccessfulRecord("/calculation", "POST", "{}", String.valueOf(index));
+    }
+}
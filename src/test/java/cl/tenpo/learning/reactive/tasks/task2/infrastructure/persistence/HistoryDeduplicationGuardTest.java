@@ -0,0 +1,59 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryPersistenceConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryStorageConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryWalConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HistoryDeduplicationGuardTest {
+
+    private HistoryStorageConfig storageConfig;
+    private HistoryPersistenceConfig persistenceConfig;
+    private HistoryWalConfig walConfig;
+
+    @BeforeEach
+    void setUp() {
+        storageConfig = new HistoryStorageConfig();
+        persistenceConfig = new HistoryPersistenceConfig();
+        walConfig = new HistoryWalConfig();
+    }
+
+    @Test
+    void standardLayoutAllowsReplayingPaths() {
+        persistenceConfig.setMode(HistoryPersistenceConfig.Mode.KAFKA);
+        walConfig.setEnabled(true);
+
+        assertDoesNotThrow(() -> newGuard().verify());
+    }
+
+    @Test
+    void timeSeriesLayoutRejectsKafkaMode() {
+        storageConfig.setLayout(HistoryStorageConfig.Layout.TIME_SERIES);
+        persistenceConfig.setMode(HistoryPersistenceConfig.Mode.KAFKA);
+
+        assertThrows(IllegalStateException.class, () -> newGuard().verify());
+    }
+
+    @Test
+    void timeSeriesLayoutRejectsWriteAheadLog() {
+        storageConfig.setLayout(HistoryStorageConfig.Layout.TIME_SERIES);
+        walConfig.setEnabled(true);
+
+        assertThrows(IllegalStateException.class, () -> newGuard().verify());
+    }
+
+    @Test
+    void timeSeriesLayoutWithoutReplayingPathsStarts() {
+        storageConfig.setLayout(HistoryStorageConfig.Layout.TIME_SERIES);
+
+        assertDoesNotThrow(() -> newGuard().verify());
+    }
+
+    private HistoryDeduplicationGuard newGuard() {
+        return new HistoryDeduplicationGuard(storageConfig, persistenceConfig, walConfig);
+    }
+}
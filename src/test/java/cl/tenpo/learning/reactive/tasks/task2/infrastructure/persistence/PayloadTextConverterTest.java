@@ -0,0 +1,110 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.PayloadText;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryCompressionConfig;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayloadTextConverterTest {
+
+    private static final String ERROR_JSON = "{\"timestamp\":\"2024-05-01T10:15:30\",\"message\":\"Servicio externo "
+            + "no disponible y no hay valor en caché\",\"details\":\"Connection refused: localhost/127.0.0.1:8083\","
+            + "\"path\":\"/learning-reactive/calculation\",\"status\":503,\"error\":\"Service Unavailable\"}";
+
+    private HistoryCompressionConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new HistoryCompressionConfig();
+        // ERROR_JSON ocupa 243 bytes, bajo el umbral por defecto
+        config.setThresholdBytes(128);
+    }
+
+    @Test
+    void largePayloadIsStoredCompressedAndDecodedLazily() {
+        PayloadTextConverter converter = new PayloadTextConverter(config);
+
+        Object stored = converter.write(PayloadText.of(ERROR_JSON), null);
+
+        Binary binary = assertInstanceOf(Binary.class, stored);
+        assertEquals(PayloadCodec.DEFLATE_DICT_V1, binary.getData()[0]);
+        assertTrue(binary.getData().length < ERROR_JSON.length() / 2);
+
+        PayloadText read = converter.read(binary, null);
+        assertFalse(read.isDecoded());
+        assertEquals(ERROR_JSON, read.text());
+        assertTrue(read.isDecoded());
+    }
+
+    @Test
+    void smallPayloadAndDisabledCompressionStayAsText() {
+        assertEquals("{\"result\":16.5}", new PayloadTextConverter(config).write(PayloadText.of("{\"result\":16.5}"), null));
+
+        config.setEnabled(false);
+        assertEquals(ERROR_JSON, new PayloadTextConverter(config).write(PayloadText.of(ERROR_JSON), null));
+    }
+
+    @Test
+    void plainTextFromOlderDocumentsIsStillReadable() {
+        PayloadText read = new PayloadTextConverter(config).read(ERROR_JSON, null);
+
+        assertTrue(read.isDecoded());
+        assertEquals(PayloadText.of(ERROR_JSON), read);
+    }
+
+    @Test
+    void compressedPayloadIsRewrittenWithoutRecompressing() {
+        PayloadTextConverter converter = new PayloadTextConverter(config);
+        Binary stored = (Binary) converter.write(PayloadText.of(ERROR_JSON), null);
+
+        Binary rewritten = (Binary) converter.write(converter.read(stored, null), null);
+
+        assertArrayEquals(stored.getData(), rewritten.getData());
+    }
+
+    @Test
+    void payloadsWrittenWithoutDictionaryRemainReadable() {
+        byte[] plain = new PayloadCodec(6, false).encode(ERROR_JSON);
+
+        assertEquals(PayloadCodec.DEFLATE, plain[0]);
+        assertEquals(ERROR_JSON, PayloadCodec.decode(plain));
+        assertThrows(IllegalArgumentException.class, () -> PayloadCodec.decode(new byte[]{9, 0, 0, 0, 1, 0}));
+    }
+
+    @Test
+    void negativeDecodedLengthIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PayloadCodec.decode(new byte[]{PayloadCodec.DEFLATE, -1, -1, -1, -1, 0}));
+    }
+
+    @Test
+    void callHistoryPayloadsUseTheConfiguredConverterInstance() {
+        MongoCustomConversions conversions = config.mongoCustomConversions(new PayloadTextConverter(config));
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter mongoConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        mongoConverter.setCustomConversions(conversions);
+        mongoConverter.afterPropertiesSet();
+
+        Document document = new Document();
+        mongoConverter.write(CallHistory.createFailedRecord("/calculation", "POST", "{}", ERROR_JSON), document);
+
+        assertEquals("{}", document.get("parameters"));
+        assertInstanceOf(Binary.class, document.get("error"));
+        assertEquals(ERROR_JSON, mongoConverter.read(CallHistory.class, document).getError().text());
+    }
+}
@@ -0,0 +1,104 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CallHistoryWalCodecTest {
+
+    @Test
+    void successfulRecordRoundTrips() {
+        CallHistory history = CallHistory.builder()
+                .id("6650f0c2a1b2c3d4e5f60718")
+                .timestamp(LocalDateTime.of(2024, 5, 24, 10, 15, 30, 123_456_789))
+                .endpoint("/calculation")
+                .method("POST")
+                .username("admin")
+                .successful(true)
+                .durationMs(7L)
+                .build();
+
+        assertEquals(history, CallHistoryWalCodec.decode(CallHistoryWalCodec.encode(history)));
+    }
+
+    @Test
+    void nullFieldsRoundTripAsNull() {
+        CallHistory history = CallHistory.builder()
+                .timestamp(LocalDateTime.of(2024, 5, 24, 10, 15, 30))
+                .endpoint("/calculation")
+                .build();
+
+        CallHistory decoded = CallHistoryWalCodec.decode(CallHistoryWalCodec.encode(history));
+
+        assertEquals(history, decoded);
+        assertNull(decoded.getDurationMs());
+        assertNull(decoded.getParameters());
+    }
+
+    @Test
+    void versionOneRecordDecodesWithoutUsername() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(1);
+            writeText(output, "6650f0c2a1b2c3d4e5f60718");
+            output.writeLong(LocalDateTime.of(2024, 5, 24, 10, 15, 30).toEpochSecond(ZoneOffset.UTC));
+            output.writeInt(500);
+            writeText(output, "/calculation");
+            writeText(output, "POST");
+            writeText(output, "{\"num1\":1}");
+            writeText(output, null);
+            writeText(output, "Servicio caído");
+            output.writeBoolean(false);
+            output.writeLong(-1);
+        }
+
+        CallHistory decoded = CallHistoryWalCodec.decode(bytes.toByteArray());
+
+        assertEquals("6650f0c2a1b2c3d4e5f60718", decoded.getId());
+        assertEquals(LocalDateTime.of(2024, 5, 24, 10, 15, 30, 500), decoded.getTimestamp());
+        assertEquals("POST", decoded.getMethod());
+        assertNull(decoded.getUsername());
+        assertEquals("{\"num1\":1}", decoded.getParameters().text());
+        assertNull(decoded.getResponse());
+        assertEquals("Servicio caído", decoded.getError().text());
+        assertNull(decoded.getDurationMs());
+    }
+
+    @Test
+    void truncatedRecordIsRejected() {
+        CallHistory history = CallHistory.createFailedRecord("/calculation", "POST", "{\"num1\":1}", "Servicio caído");
+        byte[] encoded = CallHistoryWalCodec.encode(history);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CallHistoryWalCodec.decode(Arrays.copyOf(encoded, encoded.length - 4)));
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        byte[] encoded = CallHistoryWalCodec.encode(CallHistory.createFailedRecord("/calculation", "POST", null, "x"));
+        encoded[0] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> CallHistoryWalCodec.decode(encoded));
+    }
+
+    private static void writeText(DataOutputStream output, String text) throws IOException {
+        if (text == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(utf8.length);
+        output.write(utf8);
+    }
+}
@@ -0,0 +1,152 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryWalConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryWalReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveBulkOperations bulkOperations;
+
+    private HistoryWalConfig config;
+    private HistoryWriteAheadLog writeAheadLog;
+    private HistoryWalReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        config = new HistoryWalConfig();
+        config.setEnabled(true);
+        config.setDirectory(directory.toAbsolutePath().toString());
+        config.setSegmentBytes(4096);
+        config.setReplayBatchSize(10);
+        config.setRetryInterval(Duration.ofHours(1));
+        TimeoutConfig timeoutConfig = new TimeoutConfig();
+        timeoutConfig.setDatabaseOperation(Duration.ofSeconds(1));
+        writeAheadLog = new HistoryWriteAheadLog(config, new SimpleMeterRegistry());
+        writeAheadLog.open();
+        replayer = new HistoryWalReplayer(writeAheadLog, mongoTemplate, config, timeoutConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeAheadLog.close();
+    }
+
+    @Test
+    void tickKeepsReplayUnderConfiguredRate() {
+        config.setReplayBatchSize(200);
+        config.setReplayRate(1000);
+        assertEquals(Duration.ofMillis(200), HistoryWalReplayer.replayTick(config));
+
+        config.setReplayBatchSize(1);
+        config.setReplayRate(1_000_000);
+        assertEquals(Duration.ofMillis(1), HistoryWalReplayer.replayTick(config));
+    }
+
+    @Test
+    void emptyLogDoesNotReachMongo() {
+        StepVerifier.create(replayer.replayBatch())
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void successfulBatchAdvancesCheckpointAndMarksStoreHealthy() {
+        absorb(3);
+        givenBulkInsert(Mono.just(BulkWriteResult.unacknowledged()));
+
+        StepVerifier.create(replayer.replayBatch())
+                .expectNext(3)
+                .verifyComplete();
+
+        assertTrue(writeAheadLog.read(10).isEmpty());
+        assertFalse(writeAheadLog.shouldAbsorb());
+    }
+
+    @Test
+    void duplicateKeyErrorsCountAsReplayed() {
+        absorb(2);
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0);
+        givenBulkInsert(Mono.error(new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                List.of(duplicate), null, new ServerAddress(), Set.of())));
+
+        StepVerifier.create(replayer.replayBatch())
+                .expectNext(2)
+                .verifyComplete();
+
+        assertTrue(writeAheadLog.read(10).isEmpty());
+    }
+
+    @Test
+    void failedBatchKeepsCheckpointAndWaitsRetryInterval() {
+        absorb(2);
+        givenBulkInsert(Mono.error(new IllegalStateException("mongo caído")));
+
+        StepVerifier.create(replayer.replayBatch())
+                .expectNext(0)
+                .verifyComplete();
+        StepVerifier.create(replayer.replayBatch())
+                .expectNext(0)
+                .verifyComplete();
+
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.UNORDERED, CallHistory.class);
+        assertEquals(2, writeAheadLog.read(10).size());
+        assertTrue(writeAheadLog.shouldAbsorb());
+    }
+
+    private void absorb(int count) {
+        for (int i = 0; i < count; i++) {
+            CallHistory history = CallHistory.createFailedRecord("/calculation", "POST", "{\"num1\":" + i + "}", "caído");
+            history.setId(String.format("6650f0c2a1b2c3d4e5f6%04d", i));
+            writeAheadLog.absorb(history).block();
+        }
+    }
+
+    private void givenBulkInsert(Mono<BulkWriteResult> result) {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CallHistory.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(result);
+    }
+}
@@ -0,0 +1,122 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryWalConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private HistoryWalConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private HistoryWriteAheadLog writeAheadLog;
+
+    @BeforeEach
+    void setUp() {
+        config = new HistoryWalConfig();
+        config.setEnabled(true);
+        config.setDirectory(directory.toAbsolutePath().toString());
+        config.setSegmentBytes(4096);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writeAheadLog != null) {
+            writeAheadLog.close();
+        }
+    }
+
+    @Test
+    void disabledLogAbsorbsNothing() {
+        config.setEnabled(false);
+        writeAheadLog = open();
+
+        StepVerifier.create(writeAheadLog.absorb(record()))
+                .expectNext(false)
+                .verifyComplete();
+        assertFalse(writeAheadLog.isEnabled());
+        assertFalse(writeAheadLog.shouldAbsorb());
+    }
+
+    @Test
+    void relativeDirectoryIsRejected() {
+        config.setDirectory("data/history-wal");
+
+        assertThrows(IllegalStateException.class, this::open);
+    }
+
+    @Test
+    void absorbMarksStoreUnhealthyAndAppendsRecord() {
+        writeAheadLog = open();
+        CallHistory history = record();
+        assertFalse(writeAheadLog.shouldAbsorb());
+
+        StepVerifier.create(writeAheadLog.absorb(history))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertTrue(writeAheadLog.shouldAbsorb());
+        assertEquals(0.0, healthy());
+        List<SegmentLog.Entry> entries = writeAheadLog.read(10);
+        assertEquals(1, entries.size());
+        assertEquals(history, CallHistoryWalCodec.decode(entries.get(0).payload()));
+        assertEquals(1.0, meterRegistry.get("history.wal.records").tag("result", "appended").counter().count());
+    }
+
+    @Test
+    void commitMarksStoreHealthyAgain() throws Exception {
+        writeAheadLog = open();
+        writeAheadLog.absorb(record()).block();
+        List<SegmentLog.Entry> entries = writeAheadLog.read(10);
+
+        writeAheadLog.commit(entries.get(entries.size() - 1).next(), entries.size());
+
+        assertFalse(writeAheadLog.shouldAbsorb());
+        assertEquals(1.0, healthy());
+        assertTrue(writeAheadLog.read(10).isEmpty());
+        assertEquals(1.0, meterRegistry.get("history.wal.records").tag("result", "replayed").counter().count());
+    }
+
+    @Test
+    void fullLogRejectsRecord() {
+        config.setSegmentBytes(64);
+        writeAheadLog = open();
+
+        StepVerifier.create(writeAheadLog.absorb(record()))
+                .expectNext(false)
+                .verifyComplete();
+        assertEquals(1.0, meterRegistry.get("history.wal.records").tag("result", "rejected").counter().count());
+    }
+
+    private HistoryWriteAheadLog open() {
+        HistoryWriteAheadLog wal = new HistoryWriteAheadLog(config, meterRegistry);
+        wal.open();
+        return wal;
+    }
+
+    private double healthy() {
+        return meterRegistry.get("history.wal.store.healthy").gauge().value();
+    }
+
+    private static CallHistory record() {
+        CallHistory history = CallHistory.createFailedRecord("/calculation", "POST", "{\"num1\":1}", "Servicio caído");
+        history.setId("6650f0c2a1b2c3d4e5f60718");
+        return history;
+    }
+}
@@ -0,0 +1,80 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.persistence.wal;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.CallHistory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentLogTest {
+
+    private static final int SEGMENT_BYTES = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rollsSegmentsAndStopsAtDiskLimit() throws Exception {
+        SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES);
+
+        int appended = 0;
+        while (log.append(bytes("registro-" + appended))) {
+            appended++;
+        }
+
+        assertEquals(2 * SEGMENT_BYTES, log.diskBytes());
+        List<SegmentLog.Entry> entries = log.read(100);
+        assertEquals(appended, entries.size());
+        assertEquals("registro-0", text(entries.get(0)));
+        assertEquals("registro-" + (appended - 1), text(entries.get(appended - 1)));
+    }
+
+    @Test
+    void commitDeletesConsumedSegmentsAndSurvivesReopen() throws Exception {
+        SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES, 10 * SEGMENT_BYTES);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(log.append(bytes("registro-" + i)));
+        }
+        long appendOffset = log.appendOffset();
+        List<SegmentLog.Entry> firstBatch = log.read(6);
+        log.commit(firstBatch.get(5).next());
+        log.close();
+
+        SegmentLog reopened = SegmentLog.open(directory, SEGMENT_BYTES, 10 * SEGMENT_BYTES);
+
+        assertEquals(appendOffset, reopened.appendOffset());
+        assertEquals(3 * SEGMENT_BYTES, reopened.diskBytes());
+        List<SegmentLog.Entry> rest = reopened.read(100);
+        assertEquals(4, rest.size());
+        assertEquals("registro-6", text(rest.get(0)));
+        reopened.commit(rest.get(3).next());
+        assertFalse(reopened.hasPending());
+        assertEquals(reopened.appendOffset(), reopened.replayOffset());
+    }
+
+    @Test
+    void callHistoryRoundTripsThroughBinaryFormat() {
+        CallHistory history = CallHistory.createFailedRecord("/calculation", "POST", "{\"num1\":1}", "Servicio caído");
+        history.setId("6650f0c2a1b2c3d4e5f60718");
+        history.setDurationMs(42L);
+        history.setUsername("admin");
+
+        CallHistory decoded = CallHistoryWalCodec.decode(CallHistoryWalCodec.encode(history));
+
+        assertEquals(history, decoded);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(SegmentLog.Entry entry) {
+        return new String(entry.payload(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,53 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.ConcurrencyLimitConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void callsOverTheLimitAreRejectedImmediately() {
+        ConcurrencyLimitConfig config = new ConcurrencyLimitConfig();
+        config.setInitialLimit(1);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, new SimpleMeterRegistry());
+        Sinks.One<BigDecimal> slowCall = Sinks.one();
+
+        Disposable inFlight = limiter.execute(slowCall::asMono).subscribe();
+
+        StepVerifier.create(limiter.execute(() -> Mono.just(BigDecimal.ONE)))
+                .expectError(ConcurrencyLimitExceededException.class)
+                .verify();
+
+        slowCall.tryEmitValue(BigDecimal.TEN);
+        StepVerifier.create(limiter.execute(() -> Mono.just(BigDecimal.ONE)))
+                .expectNext(BigDecimal.ONE)
+                .verifyComplete();
+        inFlight.dispose();
+    }
+
+    @Test
+    void timeoutsShrinkTheLimit() {
+        ConcurrencyLimitConfig config = new ConcurrencyLimitConfig();
+        config.setInitialLimit(20);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, new SimpleMeterRegistry());
+
+        StepVerifier.create(limiter.execute(() -> Mono.<BigDecimal>error(new TimeoutException("slow"))))
+                .expectError(TimeoutException.class)
+                .verify();
+
+        assertEquals(18, limiter.getLimit());
+        assertTrue(limiter.getLimit() >= config.getMinLimit());
+    }
+}
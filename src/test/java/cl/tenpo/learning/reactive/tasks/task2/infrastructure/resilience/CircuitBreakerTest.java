@@ -0,0 +1,124 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.resilience;
+
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.CircuitBreakerConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.event.CircuitBreakerStateChangedEvent;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.exception.CircuitOpenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CircuitBreakerTest {
+
+    private MutableClock clock;
+    private List<CircuitBreakerStateChangedEvent> events;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        CircuitBreakerConfig config = new CircuitBreakerConfig();
+        config.setSlidingWindowSize(4);
+        config.setMinimumCalls(2);
+        config.setFailureRateThreshold(50.0);
+        config.setOpenDuration(Duration.ofSeconds(10));
+        config.setHalfOpenProbes(1);
+
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        events = new ArrayList<>();
+        circuitBreaker = new CircuitBreaker("test", config,
+                event -> events.add((CircuitBreakerStateChangedEvent) event),
+                new SimpleMeterRegistry(), clock, error -> false);
+    }
+
+    @Test
+    void opensAfterFailureRateThresholdAndRejectsWithoutCallingUpstream() {
+        AtomicInteger calls = new AtomicInteger();
+        failTwice(calls);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        StepVerifier.create(circuitBreaker.execute(() -> {
+                    calls.incrementAndGet();
+                    return Mono.just(BigDecimal.ONE);
+                }))
+                .expectError(CircuitOpenException.class)
+                .verify();
+        assertEquals(2, calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, events.get(0).getToState());
+    }
+
+    @Test
+    void halfOpenProbeClosesCircuitOnSuccess() {
+        failTwice(new AtomicInteger());
+        clock.advance(Duration.ofSeconds(11));
+
+        StepVerifier.create(circuitBreaker.execute(() -> Mono.just(BigDecimal.ONE)))
+                .expectNext(BigDecimal.ONE)
+                .verifyComplete();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void halfOpenProbeFailureReopensCircuit() {
+        failTwice(new AtomicInteger());
+        clock.advance(Duration.ofSeconds(11));
+
+        StepVerifier.create(circuitBreaker.execute(() -> Mono.<BigDecimal>error(new RuntimeException("still down"))))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void failTwice(AtomicInteger calls) {
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(circuitBreaker.execute(() -> {
+                        calls.incrementAndGet();
+                        return Mono.<BigDecimal>error(new RuntimeException("API Error"));
+                    }))
+                    .expectError(RuntimeException.class)
+                    .verify();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
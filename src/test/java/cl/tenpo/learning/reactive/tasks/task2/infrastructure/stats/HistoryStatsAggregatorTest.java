@@ -0,0 +1,138 @@
+package cl.tenpo.learning.reactive.tasks.task2.infrastructure.stats;
+
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.EndpointMinuteStats;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.HistoryStatsConfig;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.config.TimeoutConfig;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryStatsAggregatorTest {
+
+    private static final LocalDateTime MINUTE = LocalDateTime.of(2024, 5, 1, 12, 30);
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveBulkOperations bulkOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HistoryStatsAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        TimeoutConfig timeoutConfig = new TimeoutConfig();
+        timeoutConfig.setDatabaseOperation(Duration.ofSeconds(1));
+        meterRegistry = new SimpleMeterRegistry();
+        aggregator = new HistoryStatsAggregator(mongoTemplate, new HistoryStatsConfig(), timeoutConfig, meterRegistry);
+    }
+
+    @Test
+    void recordsAreRolledUpPerEndpointMethodAndMinute() {
+        aggregator.record("/calculation", "POST", true, Duration.ofMillis(10).toNanos(), MINUTE.plusSeconds(5));
+        aggregator.record("/calculation", "POST", false, Duration.ofMillis(30).toNanos(), MINUTE.plusSeconds(50));
+        aggregator.record("/calculation", "POST", true, Duration.ofMillis(20).toNanos(), MINUTE.plusMinutes(1));
+        aggregator.record("/history", "GET", true, Duration.ofMillis(5).toNanos(), MINUTE);
+
+        List<EndpointMinuteStats> pending = aggregator.pending();
+
+        assertEquals(3, pending.size());
+        EndpointMinuteStats calculation = pending.stream()
+                .filter(stats -> stats.getEndpoint().equals("/calculation") && stats.getMinute().equals(MINUTE))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, calculation.getSuccesses());
+        assertEquals(1, calculation.getFailures());
+        assertEquals(40_000, calculation.getDurationSumMicros());
+        assertEquals(2, calculation.getLatency().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void flushUpsertsIncrementsAndDrainsPendingRollups() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EndpointMinuteStats.class)).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.just(mock(BulkWriteResult.class)));
+        aggregator.record("/calculation", "POST", true, Duration.ofMillis(10).toNanos(), MINUTE);
+        aggregator.record("/calculation", "POST", true, Duration.ofMillis(12).toNanos(), MINUTE);
+
+        StepVerifier.create(aggregator.flush()).verifyComplete();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(1)).upsert(any(Query.class), update.capture());
+        Document increments = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(2L, increments.get("successes"));
+        assertEquals(22_000L, increments.get("durationSumMicros"));
+        assertTrue(aggregator.pending().isEmpty());
+    }
+
+    @Test
+    void flushWithUnknownOutcomeDropsBatchInsteadOfDoubleCounting() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EndpointMinuteStats.class)).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.error(new TimeoutException("sin respuesta")));
+        aggregator.record("/calculation", "POST", true, Duration.ofMillis(10).toNanos(), MINUTE);
+
+        StepVerifier.create(aggregator.flush()).verifyComplete();
+
+        assertTrue(aggregator.pending().isEmpty());
+        assertEquals(1.0, meterRegistry.get("history.stats.rollups").tag("result", "dropped").counter().count());
+    }
+
+    @Test
+    void onlyRejectedUpsertsAreKeptForNextAttempt() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EndpointMinuteStats.class)).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        BulkWriteError rejected = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0);
+        when(bulkOperations.execute()).thenReturn(Mono.error(new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(rejected), null, new ServerAddress(), Set.of())));
+        aggregator.record("/calculation", "POST", true, Duration.ofMillis(10).toNanos(), MINUTE);
+        aggregator.record("/history", "GET", true, Duration.ofMillis(10).toNanos(), MINUTE);
+
+        StepVerifier.create(aggregator.flush()).verifyComplete();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations, times(2)).upsert(queries.capture(), any(Update.class));
+        Object rejectedId = queries.getAllValues().get(0).getQueryObject().get("_id");
+        aggregator.record("/calculation", "POST", false, Duration.ofMillis(10).toNanos(), MINUTE);
+        aggregator.record("/history", "GET", false, Duration.ofMillis(10).toNanos(), MINUTE);
+
+        List<EndpointMinuteStats> pending = aggregator.pending();
+        assertEquals(2, pending.size());
+        pending.forEach(stats -> assertEquals(stats.getId().equals(rejectedId) ? 1 : 0, stats.getSuccesses()));
+        assertEquals(1.0, meterRegistry.get("history.stats.rollups").tag("result", "failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("history.stats.rollups").tag("result", "written").counter().count());
+    }
+}
@@ -0,0 +1,108 @@
+package cl.tenpo.learning.reactive.tasks.task2.presentation.handler;
+
+import cl.tenpo.learning.reactive.tasks.task2.application.port.CallHistoryService;
+import cl.tenpo.learning.reactive.tasks.task2.application.port.HistoryStatsService;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryFilter;
+import cl.tenpo.learning.reactive.tasks.task2.domain.model.HistoryPage;
+import cl.tenpo.learning.reactive.tasks.task2.infrastructure.factory.ResponseFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryHandlerTest {
+
+    @Mock
+    private CallHistoryService callHistoryService;
+
+    @Mock
+    private HistoryStatsService historyStatsService;
+
+    private HistoryHandler historyHandler;
+
+    @BeforeEach
+    void setUp() {
+        historyHandler = new HistoryHandler(callHistoryService, historyStatsService, new ResponseFactory());
+    }
+
+    @Test
+    void invalidSuccessfulParameterIsBadRequest() {
+        MockServerRequest request = MockServerRequest.builder()
+                .queryParam("cursor", "")
+                .queryParam("successful", "maybe")
+                .build();
+
+        StepVerifier.create(historyHandler.getHistory(request))
+                .assertNext(response -> assertEquals(HttpStatus.BAD_REQUEST, response.statusCode()))
+                .verifyComplete();
+        verifyNoInteractions(callHistoryService);
+    }
+
+    @Test
+    void unparseableDateIsBadRequest() {
+        MockServerRequest request = MockServerRequest.builder()
+                .queryParam("cursor", "")
+                .queryParam("from", "ayer")
+                .build();
+
+        StepVerifier.create(historyHandler.getHistory(request))
+                .assertNext(response -> assertEquals(HttpStatus.BAD_REQUEST, response.statusCode()))
+                .verifyComplete();
+        verifyNoInteractions(callHistoryService);
+    }
+
+    @Test
+    void invertedRangeIsBadRequest() {
+        MockServerRequest request = MockServerRequest.builder()
+                .queryParam("cursor", "")
+                .queryParam("from", "2024-05-24T10:00:00")
+                .queryParam("to", "2024-05-24T09:00:00")
+                .build();
+
+        StepVerifier.create(historyHandler.getHistory(request))
+                .assertNext(response -> assertEquals(HttpStatus.BAD_REQUEST, response.statusCode()))
+                .verifyComplete();
+        verifyNoInteractions(callHistoryService);
+    }
+
+    @Test
+    void filtersAreParsedIntoHistoryFilter() {
+        when(callHistoryService.getHistoryPage(eq(""), isNull(), any(HistoryFilter.class)))
+                .thenReturn(Mono.just(new HistoryPage(List.of(), null)));
+        MockServerRequest request = MockServerRequest.builder()
+                .queryParam("cursor", "")
+                .queryParam("endpoint", "/calculation")
+                .queryParam("method", "post")
+                .queryParam("successful", "FALSE")
+                .queryParam("user", "admin")
+                .queryParam("from", "2024-05-24T09:00:00")
+                .build();
+
+        StepVerifier.create(historyHandler.getHistory(request))
+                .assertNext(response -> assertEquals(HttpStatus.OK, response.statusCode()))
+                .verifyComplete();
+
+        ArgumentCaptor<HistoryFilter> filter = ArgumentCaptor.forClass(HistoryFilter.class);
+        verify(callHistoryService).getHistoryPage(eq(""), isNull(), filter.capture());
+        assertEquals(new HistoryFilter("/calculation", "POST", false, "admin",
+                LocalDateTime.of(2024, 5, 24, 9, 0), null), filter.getValue());
+    }
+}